@@ -0,0 +1,56 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic tenant data for the benchmarks. Names are zero-padded, so the generated lists are already in the
+ * default sort order of the queries (by contactName and categoryName).
+ */
+final class BenchmarkData {
+
+    static final String TENANT_ID = "6650f1c2a9d3b84e1c7a0b11";
+
+    private BenchmarkData() {
+    }
+
+    static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            categories.add(new Category(String.format("665100000000000000%06d", i),
+                    String.format("Category %04d", i), "Synthetic category number " + i));
+        }
+        return categories;
+    }
+
+    /**
+     * Assigns each contact to {@code categoriesPerContact} consecutive categories, wrapping around.
+     */
+    static List<Contact> contacts(int count, List<Category> categories, int categoriesPerContact) {
+        List<Contact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contacts.add(contact(i, categories, categoriesPerContact));
+        }
+        return contacts;
+    }
+
+    static Contact contact(int i, List<Category> categories, int categoriesPerContact) {
+        Contact contact = new Contact();
+        contact.setId(String.format("665200000000000000%06d", i));
+        contact.setContactName(String.format("Contact %06d Smith", i));
+        contact.setPhone(String.format("+1 (555) %03d-%04d", i / 10000 % 1000, i % 10000));
+        contact.setEmail("contact" + i + "@example.com");
+        contact.applyPhoneDigits(contact.getPhone().replaceAll("\\D", ""));
+        contact.refreshSearchFields();
+        contact.setVersion(1L);
+        List<String> categoryIds = new ArrayList<>(categoriesPerContact);
+        for (int c = 0; c < categoriesPerContact && c < categories.size(); c++) {
+            categoryIds.add(categories.get((i + c) % categories.size()).getId());
+        }
+        contact.setCategoryIds(categoryIds);
+        return contact;
+    }
+}
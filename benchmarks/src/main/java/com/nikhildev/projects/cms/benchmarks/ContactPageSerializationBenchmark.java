@@ -0,0 +1,66 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.PagedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of contact pages with the ObjectMapper configuration Spring Boot applies: the GraphQL
+ * response map as written by the GraphQL HTTP handler, and the page object itself as written by REST endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PagedResponse<Contact> contactPage;
+    private Map<String, Object> graphQlResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Category> categories = BenchmarkData.categories(50);
+        List<Contact> contacts = BenchmarkData.contacts(pageSize, categories, 3);
+        contactPage = PagedResponse.fromPage(new PageImpl<>(contacts, PageRequest.of(0, pageSize), 5000));
+        try (GraphQLFixture fixture = new GraphQLFixture(contacts, categories)) {
+            graphQlResponse = fixture.verify(GraphQLExecutionBenchmark.CONTACTS, Map.of("pageSize", pageSize)).toMap();
+        }
+    }
+
+    @Benchmark
+    public byte[] graphQlResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(graphQlResponse);
+    }
+
+    @Benchmark
+    public byte[] contactPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contactPage);
+    }
+}
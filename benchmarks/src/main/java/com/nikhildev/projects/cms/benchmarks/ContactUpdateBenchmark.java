@@ -0,0 +1,65 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging an update input into a stored contact, with and without the search fields that are recomputed
+ * when the name or phone changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactUpdateBenchmark {
+
+    private Contact existing;
+    private Contact partialUpdate;
+    private Contact fullUpdate;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        List<Category> categories = BenchmarkData.categories(10);
+        existing = BenchmarkData.contact(1, categories, 3);
+        fullUpdate = BenchmarkData.contact(2, categories, 5);
+        fullUpdate.setId(null);
+        partialUpdate = new Contact();
+        partialUpdate.setEmail("updated@example.com");
+        partialUpdate.setCategoryIds(null);
+    }
+
+    @Benchmark
+    public Contact updateFromPartial() {
+        existing.updateFrom(partialUpdate);
+        return existing;
+    }
+
+    @Benchmark
+    public Contact updateFromFull() {
+        existing.updateFrom(fullUpdate);
+        return existing;
+    }
+
+    @Benchmark
+    public Contact updateFromFullWithSearchFields() {
+        existing.updateFrom(fullUpdate);
+        existing.refreshSearchFields();
+        return existing;
+    }
+}
@@ -0,0 +1,113 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.models.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution of representative contacts and categories queries, from parsing to the result map, including the
+ * DataLoader batching of the nested fields. Repository reads are served from memory, so this is the per-request
+ * cost the application adds on top of MongoDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphQLExecutionBenchmark {
+
+    static final String CONTACTS = """
+            query Contacts($pageSize: Int) {
+              contacts(pageSize: $pageSize) {
+                content { id contactName phone email }
+                totalElements totalPages number pageSize first last
+              }
+            }""";
+
+    static final String CONTACTS_WITH_CATEGORIES = """
+            query ContactsWithCategories($pageSize: Int) {
+              contacts(pageSize: $pageSize) {
+                content {
+                  id contactName phone
+                  categories(pageSize: 5) { content { id categoryName } numberOfElements }
+                }
+                last
+              }
+            }""";
+
+    static final String CATEGORIES = """
+            query Categories($pageSize: Int) {
+              categories(pageSize: $pageSize) {
+                content { id categoryName description }
+                totalElements last
+              }
+            }""";
+
+    static final String CATEGORIES_WITH_CONTACTS = """
+            query CategoriesWithContacts($pageSize: Int) {
+              categories(pageSize: $pageSize) {
+                content {
+                  id categoryName
+                  contacts(pageSize: 10) { content { id contactName phone } totalElements }
+                }
+                last
+              }
+            }""";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private GraphQLFixture fixture;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        List<Category> categories = BenchmarkData.categories(50);
+        fixture = new GraphQLFixture(BenchmarkData.contacts(5000, categories, 3), categories);
+        variables = Map.of("pageSize", pageSize);
+        for (String document : List.of(CONTACTS, CONTACTS_WITH_CATEGORIES, CATEGORIES, CATEGORIES_WITH_CONTACTS)) {
+            fixture.verify(document, variables);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse contacts() {
+        return fixture.execute(CONTACTS, variables);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse contactsWithCategories() {
+        return fixture.execute(CONTACTS_WITH_CATEGORIES, variables);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse categories() {
+        return fixture.execute(CATEGORIES, variables);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse categoriesWithContacts() {
+        return fixture.execute(CATEGORIES_WITH_CONTACTS, variables);
+    }
+}
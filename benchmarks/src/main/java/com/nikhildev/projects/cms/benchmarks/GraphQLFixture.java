@@ -0,0 +1,97 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.config.GraphQLMetricsInstrumentation;
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import com.nikhildev.projects.cms.repositories.ContactRepository;
+import com.nikhildev.projects.cms.resolvers.CategoryResolver;
+import com.nikhildev.projects.cms.resolvers.ContactResolver;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.services.CategoryCache;
+import com.nikhildev.projects.cms.services.CategoryService;
+import com.nikhildev.projects.cms.services.ContactService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.data.pagination.ConnectionFieldTypeVisitor;
+import org.springframework.graphql.data.pagination.CursorEncoder;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.graphql.data.query.ScrollPositionCursorStrategy;
+import org.springframework.graphql.data.query.WindowConnectionAdapter;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.ConnectionTypeDefinitionConfigurer;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application's schema, resolvers and services wired as they are at runtime, without security, over the
+ * in-memory repositories. Requests run as {@link BenchmarkData#TENANT_ID}.
+ */
+final class GraphQLFixture implements AutoCloseable {
+
+    private final TenantContext tenantContext = new TenantContext();
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private final DefaultExecutionGraphQlService graphQlService;
+
+    GraphQLFixture(List<Contact> contacts, List<Category> categories) {
+        ContactRepository contactRepository = InMemoryRepositories.contacts(contacts);
+        CategoryRepository categoryRepository = InMemoryRepositories.categories(categories);
+        CategoryCache categoryCache = new CategoryCache(categoryRepository, tenantContext, Duration.ofMinutes(10), 1000);
+        ContactService contactService = new ContactService(contactRepository, categoryRepository, categoryCache,
+                tenantContext, new PhoneNormalizer("1"), false, 1000);
+        CategoryService categoryService = new CategoryService(categoryRepository, contactRepository, categoryCache,
+                tenantContext);
+        BatchLoaderRegistry batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+        applicationContext.registerBean(ContactResolver.class,
+                () -> new ContactResolver(contactService, categoryService, tenantContext, batchLoaderRegistry));
+        applicationContext.registerBean(CategoryResolver.class,
+                () -> new CategoryResolver(categoryService, contactService, tenantContext, batchLoaderRegistry));
+        applicationContext.refresh();
+
+        AnnotatedControllerConfigurer controllers = new AnnotatedControllerConfigurer();
+        controllers.setApplicationContext(applicationContext);
+        controllers.afterPropertiesSet();
+        GraphQlSource graphQlSource = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("graphql/schema.graphqls"))
+                .configureTypeDefinitions(new ConnectionTypeDefinitionConfigurer())
+                .configureRuntimeWiring(controllers)
+                .typeVisitors(List.of(ConnectionFieldTypeVisitor.create(List.of(new WindowConnectionAdapter(
+                        CursorStrategy.withEncoder(new ScrollPositionCursorStrategy(), CursorEncoder.base64()))))))
+                .instrumentation(List.of(new GraphQLMetricsInstrumentation(new SimpleMeterRegistry())))
+                .build();
+        graphQlService = new DefaultExecutionGraphQlService(graphQlSource);
+        graphQlService.addDataLoaderRegistrar(batchLoaderRegistry);
+    }
+
+    ExecutionGraphQlResponse execute(String document, Map<String, Object> variables) {
+        DefaultExecutionGraphQlRequest request =
+                new DefaultExecutionGraphQlRequest(document, null, variables, null, "benchmark", null);
+        return tenantContext.callAsTenant(BenchmarkData.TENANT_ID, () -> graphQlService.execute(request).block());
+    }
+
+    /**
+     * Executes the document once and fails on errors, so that a benchmark never measures an error response.
+     */
+    ExecutionGraphQlResponse verify(String document, Map<String, Object> variables) {
+        ExecutionGraphQlResponse response = execute(document, variables);
+        if (!response.isValid() || !response.getErrors().isEmpty()) {
+            throw new IllegalStateException("Query failed: " + response.getErrors());
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+    }
+}
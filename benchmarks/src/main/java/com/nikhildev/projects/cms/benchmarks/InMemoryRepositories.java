@@ -0,0 +1,124 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import com.nikhildev.projects.cms.repositories.ContactRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory stand-ins for the contact and category repositories, serving the reads behind the unfiltered
+ * contacts and categories queries and their nested fields from lists, so that the benchmarks measure the
+ * resolvers, services and GraphQL execution rather than MongoDB. Criteria and sorts are ignored; the lists
+ * are expected in sort order. Any other repository method throws.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static ContactRepository contacts(List<Contact> contacts) {
+        Map<String, List<Contact>> contactsByCategory = new HashMap<>();
+        for (Contact contact : contacts) {
+            contact.getCategoryIds().forEach(categoryId ->
+                    contactsByCategory.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(contact));
+        }
+        return repository(ContactRepository.class, (method, args) -> switch (method.getName()) {
+            case "findSlice" -> slice(contacts, (Pageable) args[1]);
+            case "count", "estimatedCount" -> (long) contacts.size();
+            case "findSlicesByCategoryIds" -> {
+                Pageable pageable = (Pageable) args[3];
+                Map<String, Slice<Contact>> slices = new LinkedHashMap<>();
+                for (Object categoryId : (Collection<?>) args[0]) {
+                    slices.put((String) categoryId,
+                            slice(contactsByCategory.getOrDefault((String) categoryId, List.of()), pageable));
+                }
+                yield slices;
+            }
+            case "countByCategoryIds" -> {
+                Map<String, Long> counts = new HashMap<>();
+                for (Object categoryId : (Collection<?>) args[0]) {
+                    List<Contact> categoryContacts = contactsByCategory.getOrDefault((String) categoryId, List.of());
+                    if (!categoryContacts.isEmpty()) {
+                        counts.put((String) categoryId, (long) categoryContacts.size());
+                    }
+                }
+                yield counts;
+            }
+            default -> unsupported(method);
+        });
+    }
+
+    static CategoryRepository categories(List<Category> categories) {
+        return repository(CategoryRepository.class, (method, args) -> switch (method.getName()) {
+            case "findSlice" -> slice(categories, (Pageable) args[1]);
+            case "count" -> (long) categories.size();
+            case "findAll" -> args == null || args.length == 0 ? categories : unsupported(method);
+            case "findByIdIn" -> {
+                if (!(args[1] instanceof Sort)) {
+                    yield unsupported(method);
+                }
+                Set<Object> ids = new HashSet<>((Collection<?>) args[0]);
+                yield categories.stream().filter(category -> ids.contains(category.getId())).toList();
+            }
+            case "findExistingIds" -> {
+                Set<Object> ids = new HashSet<>((Collection<?>) args[0]);
+                Set<String> existingIds = new HashSet<>();
+                categories.stream().map(Category::getId).filter(ids::contains).forEach(existingIds::add);
+                yield existingIds;
+            }
+            default -> unsupported(method);
+        });
+    }
+
+    private static <T> Slice<T> slice(List<T> items, Pageable pageable) {
+        List<T> content = page(items, pageable);
+        return new SliceImpl<>(content, pageable, pageable.getOffset() + content.size() < items.size());
+    }
+
+    private static <T> List<T> page(List<T> items, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return items.subList(from, to);
+    }
+
+    private static Object unsupported(Method method) {
+        throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + " is not supported by the in-memory repository");
+    }
+
+    private static <T> T repository(Class<T> repositoryType, RepositoryMethod handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + repositoryType.getSimpleName();
+                };
+            }
+            return handler.invoke(method, args);
+        };
+        return repositoryType.cast(Proxy.newProxyInstance(InMemoryRepositories.class.getClassLoader(),
+                new Class<?>[]{repositoryType}, invocationHandler));
+    }
+
+    @FunctionalInterface
+    private interface RepositoryMethod {
+        Object invoke(Method method, Object[] args);
+    }
+}
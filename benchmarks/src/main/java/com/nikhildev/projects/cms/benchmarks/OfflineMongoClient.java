@@ -0,0 +1,87 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.nikhildev.projects.cms.config.TenantDatabases;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * A MongoClient for benchmarks that run without a server. Database handles come from a real client, which
+ * does not connect until a command is sent, while finds on the default database return nothing, so tenant
+ * storage lookups resolve every tenant to its own database instead of waiting for a server.
+ */
+final class OfflineMongoClient {
+
+    private OfflineMongoClient() {
+    }
+
+    static MongoClient create() {
+        MongoClient client = MongoClients.create("mongodb://localhost:27017/?serverSelectionTimeoutMS=1");
+        return proxy(MongoClient.class, (method, args) ->
+                "getDatabase".equals(method.getName()) && TenantDatabases.DEFAULT_DB.equals(args[0])
+                        ? defaultDatabase(client.getDatabase(TenantDatabases.DEFAULT_DB))
+                        : invoke(client, method, args));
+    }
+
+    private static MongoDatabase defaultDatabase(MongoDatabase database) {
+        return proxy(MongoDatabase.class, (method, args) ->
+                "getCollection".equals(method.getName())
+                        ? collection((MongoCollection<?>) invoke(database, method, args))
+                        : invoke(database, method, args));
+    }
+
+    private static MongoCollection<?> collection(MongoCollection<?> collection) {
+        return proxy(MongoCollection.class, (method, args) ->
+                "find".equals(method.getName()) ? emptyFind() : invoke(collection, method, args));
+    }
+
+    private static FindIterable<?> emptyFind() {
+        FindIterable<?>[] self = new FindIterable<?>[1];
+        self[0] = proxy(FindIterable.class, (method, args) -> {
+            if (method.getReturnType() == FindIterable.class) {
+                return self[0];
+            }
+            if ("first".equals(method.getName())) {
+                return null;
+            }
+            throw new UnsupportedOperationException("FindIterable." + method.getName() + " needs a server");
+        });
+        return self[0];
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Offline" + type.getSimpleName();
+                };
+            }
+            return call.invoke(method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(OfflineMongoClient.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,74 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.PagedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of repository pages and slices to the GraphQL page type, done once per paged field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResponseBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private Page<Contact> page;
+    private Slice<Contact> slice;
+    private List<Contact> contacts;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        contacts = BenchmarkData.contacts(pageSize * 3, BenchmarkData.categories(10), 2);
+        pageable = PageRequest.of(1, pageSize, Sort.by("contactName"));
+        List<Contact> content = contacts.subList(pageSize, pageSize * 2);
+        page = new PageImpl<>(content, pageable, contacts.size());
+        slice = new SliceImpl<>(content, pageable, true);
+    }
+
+    @Benchmark
+    public PagedResponse<Contact> fromPage() {
+        return PagedResponse.fromPage(page);
+    }
+
+    @Benchmark
+    public PagedResponse<Contact> fromSliceWithoutTotal() {
+        return PagedResponse.fromSlice(slice, false, contacts::size);
+    }
+
+    @Benchmark
+    public PagedResponse<Contact> fromSliceWithTotal() {
+        return PagedResponse.fromSlice(slice, true, contacts::size);
+    }
+
+    @Benchmark
+    public PagedResponse<Contact> fromList() {
+        return PagedResponse.fromList(contacts, pageable);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tenant lookups done by every resolver, service and database factory call, and the rebinding done by
+ * DataLoaders and background work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantContextBenchmark {
+
+    private final TenantContext tenantContext = new TenantContext();
+
+    @Setup
+    public void setUp() {
+        tenantContext.setTenantId(BenchmarkData.TENANT_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tenantContext.clear();
+    }
+
+    @Benchmark
+    public String getTenantId() {
+        return tenantContext.getTenantId();
+    }
+
+    @Benchmark
+    public String callAsTenant() {
+        return tenantContext.callAsTenant("other-tenant", tenantContext::getTenantId);
+    }
+}
@@ -0,0 +1,115 @@
+package com.nikhildev.projects.cms.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.nikhildev.projects.cms.config.MultiTenantMongoConfig;
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.config.TenantDatabases;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tenant database resolution, which MongoTemplate performs through {@link MongoDatabaseFactory#getMongoDatabase()}
+ * on every repository operation, for requests spread over many tenants. {@code uncached} is the factory as
+ * it was before database handles were cached per tenant: it built the database name in
+ * {@code getDefaultDatabaseName()} and asked the client for a new handle on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantDatabaseFactoryBenchmark {
+
+    @Param({"10", "10000"})
+    private int tenants;
+
+    private final TenantContext tenantContext = new TenantContext();
+    private MongoClient mongoClient;
+    private MongoDatabaseFactory cachedFactory;
+    private MongoDatabaseFactory uncachedFactory;
+    private String[] tenantIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        mongoClient = OfflineMongoClient.create();
+        TenantDatabases tenantDatabases = new TenantDatabases(mongoClient, "shared", tenants, Duration.ofHours(1));
+        cachedFactory = new MultiTenantMongoConfig(tenantContext).mongoDatabaseFactory(mongoClient, tenantDatabases);
+        uncachedFactory = new UncachedTenantDatabaseFactory(mongoClient, tenantContext);
+        tenantIds = new String[tenants];
+        for (int i = 0; i < tenants; i++) {
+            tenantIds[i] = String.format("66500000000000000%07d", i);
+            // Resolves the tenant's storage once, as the first request of each tenant does
+            tenantDatabases.database(tenantIds[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        tenantContext.clear();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public MongoDatabase cached() {
+        tenantContext.setTenantId(nextTenantId());
+        return cachedFactory.getMongoDatabase();
+    }
+
+    @Benchmark
+    public MongoDatabase uncached() {
+        tenantContext.setTenantId(nextTenantId());
+        return uncachedFactory.getMongoDatabase();
+    }
+
+    private String nextTenantId() {
+        String tenantId = tenantIds[next];
+        next = next + 1 == tenantIds.length ? 0 : next + 1;
+        return tenantId;
+    }
+
+    private static class UncachedTenantDatabaseFactory extends SimpleMongoClientDatabaseFactory {
+
+        private static final Logger logger = LoggerFactory.getLogger(UncachedTenantDatabaseFactory.class);
+
+        private final TenantContext tenantContext;
+
+        UncachedTenantDatabaseFactory(MongoClient mongoClient, TenantContext tenantContext) {
+            super(mongoClient, TenantDatabases.DEFAULT_DB);
+            this.tenantContext = tenantContext;
+        }
+
+        @Override
+        @NonNull
+        protected String getDefaultDatabaseName() {
+            String tenantId = tenantContext.getTenantId();
+            if (tenantId != null) {
+                String dbName = "tenant_" + tenantId;
+                logger.debug("Using tenant database: {}", dbName);
+                return dbName;
+            }
+            logger.debug("No tenant context found, using default database");
+            return TenantDatabases.DEFAULT_DB;
+        }
+    }
+}
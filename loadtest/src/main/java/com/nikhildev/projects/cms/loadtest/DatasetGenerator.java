@@ -0,0 +1,146 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.Tenant;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.services.TenantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates the synthetic tenants through {@link TenantService#createTenant}, so each gets its database or shared
+ * storage and its indexes as in production, and fills them with categories and contacts using bulk inserts.
+ */
+final class DatasetGenerator {
+
+    static final String PASSWORD = "loadtest";
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris"};
+
+    private final TenantService tenantService;
+    private final MongoTemplate mongoTemplate;
+    private final TenantContext tenantContext;
+    private final PhoneNormalizer phoneNormalizer;
+    private final LoadTestOptions options;
+    private final String runId;
+
+    DatasetGenerator(ApplicationContext applicationContext, LoadTestOptions options, String runId) {
+        this.tenantService = applicationContext.getBean(TenantService.class);
+        this.mongoTemplate = applicationContext.getBean(MongoTemplate.class);
+        this.tenantContext = applicationContext.getBean(TenantContext.class);
+        this.phoneNormalizer = applicationContext.getBean(PhoneNormalizer.class);
+        this.options = options;
+        this.runId = runId;
+    }
+
+    static String contactName(int number) {
+        return FIRST_NAMES[number % FIRST_NAMES.length] + " " + LAST_NAMES[number / FIRST_NAMES.length % LAST_NAMES.length]
+                + " " + number;
+    }
+
+    static String phone(int tenantNumber, int number) {
+        return String.format(Locale.ROOT, "+1 %03d %07d", 200 + tenantNumber % 800, number);
+    }
+
+    static String firstName(int number) {
+        return FIRST_NAMES[number % FIRST_NAMES.length];
+    }
+
+    List<SeededTenant> generate() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.tenants(),
+                Math.max(1, Runtime.getRuntime().availableProcessors())));
+        try {
+            List<Future<SeededTenant>> futures = new ArrayList<>();
+            for (int i = 0; i < options.tenants(); i++) {
+                int tenantNumber = i;
+                futures.add(executor.submit(() -> seedTenant(tenantNumber)));
+            }
+            List<SeededTenant> tenants = new ArrayList<>();
+            for (Future<SeededTenant> future : futures) {
+                tenants.add(future.get());
+            }
+            return tenants;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not seed the tenants", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SeededTenant seedTenant(int tenantNumber) {
+        Tenant tenant = new Tenant();
+        tenant.setName("Load test " + runId + " tenant " + tenantNumber);
+        tenant.setDescription("Synthetic tenant of load test run " + runId);
+        tenant.setUsername("loadtest-" + runId + "-" + tenantNumber);
+        tenant.setPassword(PASSWORD);
+        tenant.setRole("USER");
+        tenant.setStorage(options.storage());
+        Tenant savedTenant = tenantService.createTenant(tenant);
+        long start = System.nanoTime();
+        SeededTenant seededTenant = tenantContext.callAsTenant(savedTenant.getId(), () -> {
+            List<String> categoryIds = insertCategories();
+            List<String> contactIds = insertContacts(tenantNumber, categoryIds);
+            return new SeededTenant(tenantNumber, savedTenant.getId(), tenant.getUsername(), PASSWORD, contactIds,
+                    categoryIds);
+        });
+        logger.info("Seeded tenant {} with {} categories and {} contacts in {} ms", savedTenant.getId(),
+                options.categoriesPerTenant(), options.contactsPerTenant(), (System.nanoTime() - start) / 1_000_000);
+        return seededTenant;
+    }
+
+    private List<String> insertCategories() {
+        List<Category> categories = new ArrayList<>(options.categoriesPerTenant());
+        for (int i = 0; i < options.categoriesPerTenant(); i++) {
+            categories.add(new Category(null, String.format(Locale.ROOT, "Segment %04d", i),
+                    "Synthetic category " + i));
+        }
+        return mongoTemplate.insert(categories, Category.class).stream().map(Category::getId).toList();
+    }
+
+    private List<String> insertContacts(int tenantNumber, List<String> categoryIds) {
+        List<String> contactIds = new ArrayList<>(options.contactsPerTenant());
+        List<Contact> batch = new ArrayList<>(options.seedBatchSize());
+        for (int i = 0; i < options.contactsPerTenant(); i++) {
+            batch.add(contact(tenantNumber, i, categoryIds));
+            if (batch.size() == options.seedBatchSize() || i == options.contactsPerTenant() - 1) {
+                mongoTemplate.insert(batch, Contact.class).forEach(contact -> contactIds.add(contact.getId()));
+                batch = new ArrayList<>(options.seedBatchSize());
+            }
+        }
+        return contactIds;
+    }
+
+    private Contact contact(int tenantNumber, int number, List<String> categoryIds) {
+        Contact contact = new Contact();
+        contact.setContactName(contactName(number));
+        contact.setPhone(phone(tenantNumber, number));
+        contact.setEmail("contact" + number + "@tenant" + tenantNumber + ".example.com");
+        contact.applyPhoneDigits(phoneNormalizer.canonicalize(contact.getPhone()));
+        contact.refreshSearchFields();
+        List<String> contactCategoryIds = new ArrayList<>();
+        for (int c = 0; c < options.categoriesPerContact() && c < categoryIds.size(); c++) {
+            // Spread the contacts over the categories with a stride, so category sizes stay even
+            contactCategoryIds.add(categoryIds.get((number * 7 + c * 13) % categoryIds.size()));
+        }
+        contact.setCategoryIds(contactCategoryIds.stream().distinct().toList());
+        return contact;
+    }
+}
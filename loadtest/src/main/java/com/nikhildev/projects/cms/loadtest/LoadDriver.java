@@ -0,0 +1,183 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the closed-loop clients: each sends one request at a time for a random tenant and operation of the
+ * workload, and records the latency of each response in its own histograms once the warmup is over.
+ */
+final class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The latencies, in nanoseconds, and error count of one operation over the measured phase.
+     */
+    record OperationResult(Histogram latencies, long errors) {
+    }
+
+    private final URI endpoint;
+    private final List<SeededTenant> tenants;
+    private final Workload workload;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean measuring = new AtomicBoolean();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicBoolean errorLogged = new AtomicBoolean();
+
+    LoadDriver(int port, List<SeededTenant> tenants, Workload workload, LoadTestOptions options) {
+        this.endpoint = URI.create("http://localhost:" + port + "/graphql");
+        this.tenants = tenants;
+        this.workload = workload;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Runs the warmup and the measured phase. The given callback runs when the measured phase starts, so the
+     * caller can snapshot server-side counters at the same moment.
+     *
+     * @return the results of the measured phase by operation name, in workload order
+     */
+    Map<String, OperationResult> run(Runnable onMeasurementStart) throws InterruptedException {
+        List<Client> clients = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(options.clients());
+        for (int i = 0; i < options.clients(); i++) {
+            Client client = new Client(finished);
+            clients.add(client);
+            Thread thread = new Thread(client, "loadtest-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        logger.info("Warming up {} clients for {}", options.clients(), options.warmup());
+        Thread.sleep(options.warmup().toMillis());
+        onMeasurementStart.run();
+        measuring.set(true);
+        logger.info("Measuring for {}", options.duration());
+        Thread.sleep(options.duration().toMillis());
+        measuring.set(false);
+        stopped.set(true);
+        finished.await();
+
+        Map<String, OperationResult> results = new LinkedHashMap<>();
+        for (Workload.Operation operation : workload.operations()) {
+            Histogram merged = new Histogram(3);
+            long errors = 0;
+            for (Client client : clients) {
+                merged.add(client.latencies.get(operation.name()));
+                errors += client.errors.get(operation.name())[0];
+            }
+            results.put(operation.name(), new OperationResult(merged, errors));
+        }
+        return results;
+    }
+
+    private final class Client implements Runnable {
+
+        private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<String, long[]> errors = new LinkedHashMap<>();
+        private final CountDownLatch finished;
+
+        private Client(CountDownLatch finished) {
+            this.finished = finished;
+            for (Workload.Operation operation : workload.operations()) {
+                // Auto-resizing, so slow outliers are kept instead of failing the recording
+                latencies.put(operation.name(), new Histogram(3));
+                errors.put(operation.name(), new long[1]);
+            }
+        }
+
+        @Override
+        public void run() {
+            Random random = ThreadLocalRandom.current();
+            try {
+                while (!stopped.get()) {
+                    SeededTenant tenant = tenants.get(random.nextInt(tenants.size()));
+                    Workload.Operation operation = workload.next(random);
+                    HttpRequest request = request(tenant, operation, random);
+                    boolean recording = measuring.get();
+                    long start = System.nanoTime();
+                    boolean success = send(request, operation);
+                    long elapsed = System.nanoTime() - start;
+                    if (recording && measuring.get()) {
+                        latencies.get(operation.name()).recordValue(elapsed);
+                        if (!success) {
+                            errors.get(operation.name())[0]++;
+                        }
+                    }
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private HttpRequest request(SeededTenant tenant, Workload.Operation operation, Random random) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("query", operation.document());
+            body.put("operationName", operation.name());
+            body.put("variables", operation.variables().apply(tenant, random));
+            try {
+                return HttpRequest.newBuilder(endpoint)
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", tenant.authorization())
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                        .build();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return whether the request succeeded, i.e. returned 200 without GraphQL errors
+         */
+        private boolean send(HttpRequest request, Workload.Operation operation) {
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                boolean success = response.statusCode() == 200 && !response.body().contains("\"errors\"");
+                if (!success) {
+                    logFirstError(operation, response.statusCode() + " " + response.body());
+                }
+                return success;
+            } catch (IOException e) {
+                logFirstError(operation, e.toString());
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped.set(true);
+                return false;
+            }
+        }
+
+        private void logFirstError(Workload.Operation operation, String detail) {
+            // Log one failure to explain the error counts without flooding the output
+            if (errorLogged.compareAndSet(false, true)) {
+                logger.warn("{} failed: {}", operation.name(), detail);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import com.nikhildev.projects.cms.models.Tenant;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load test run, given as {@code --name=value} arguments. Durations use the Spring Boot format,
+ * e.g. {@code 30s} or {@code 2m}.
+ */
+record LoadTestOptions(
+        int tenants,
+        int contactsPerTenant,
+        int categoriesPerTenant,
+        int categoriesPerContact,
+        Tenant.Storage storage,
+        int seedBatchSize,
+        int clients,
+        Duration warmup,
+        Duration duration,
+        Map<String, Integer> mix,
+        MongoMode mongo,
+        String mongod,
+        String mongoHost,
+        int mongoPort,
+        Path output) {
+
+    enum MongoMode {
+        // Spawn mongod when it is on the PATH, otherwise use the in-memory stand-in
+        AUTO,
+        SPAWN,
+        EMBEDDED,
+        EXTERNAL
+    }
+
+    static final String USAGE = """
+            Usage: java -jar loadtest/target/loadtest.jar [--name=value ...]
+
+              --tenants=5                   tenants to create
+              --contacts=10000              contacts per tenant
+              --categories=50               categories per tenant
+              --categories-per-contact=3    categories assigned to each contact
+              --storage=DATABASE            DATABASE or SHARED tenant storage
+              --seed-batch-size=1000        contacts per bulk insert
+              --clients=32                  concurrent GraphQL clients
+              --warmup=30s                  warmup phase, not reported
+              --duration=60s                measured phase
+              --mix=ListContacts=20,...     operation weights; listed operations only (default: all)
+              --mongo=AUTO                  AUTO, SPAWN, EMBEDDED or EXTERNAL
+              --mongod=mongod               mongod binary to spawn
+              --mongo-host=localhost        server to use with --mongo=EXTERNAL
+              --mongo-port=27017            port to use with --mongo=EXTERNAL
+              --output=loadtest-results     directory for the latency distributions
+            """;
+
+    private static final Set<String> NAMES = Set.of("tenants", "contacts", "categories", "categories-per-contact",
+            "storage", "seed-batch-size", "clients", "warmup", "duration", "mix", "mongo", "mongod", "mongo-host",
+            "mongo-port", "output");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !NAMES.contains(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                positive(values, "tenants", 5),
+                positive(values, "contacts", 10000),
+                positive(values, "categories", 50),
+                Integer.parseInt(values.getOrDefault("categories-per-contact", "3")),
+                Tenant.Storage.valueOf(values.getOrDefault("storage", "DATABASE").toUpperCase()),
+                positive(values, "seed-batch-size", 1000),
+                positive(values, "clients", 32),
+                duration(values.getOrDefault("warmup", "30s")),
+                duration(values.getOrDefault("duration", "60s")),
+                mix(values.get("mix")),
+                MongoMode.valueOf(values.getOrDefault("mongo", "AUTO").toUpperCase()),
+                values.getOrDefault("mongod", "mongod"),
+                values.getOrDefault("mongo-host", "localhost"),
+                Integer.parseInt(values.getOrDefault("mongo-port", "27017")),
+                Path.of(values.getOrDefault("output", "loadtest-results")));
+    }
+
+    private static int positive(Map<String, String> values, String name, int defaultValue) {
+        int value = values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    /**
+     * @return the weights by operation name in the given order, or null to run every operation with its
+     * default weight
+     */
+    private static Map<String, Integer> mix(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries take the form Operation=weight: " + entry);
+            }
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,106 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints the throughput, latency percentiles and MongoDB commands per request of each operation, and writes
+ * the full latency distribution of each operation as an HdrHistogram percentile file.
+ */
+final class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final MeterRegistry meterRegistry;
+    private Map<String, Long> mongoCommandsAtStart = Map.of();
+
+    LoadTestReport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Snapshots the server's {@code cms.mongo.command} counts, so the report only counts the commands of the
+     * measured phase.
+     */
+    void startMeasurement() {
+        mongoCommandsAtStart = mongoCommandsByOperation();
+    }
+
+    void write(Map<String, LoadDriver.OperationResult> results, LoadTestOptions options, String mongoDescription,
+               PrintStream out) throws IOException {
+        Map<String, Long> mongoCommandsAtEnd = mongoCommandsByOperation();
+        double seconds = options.duration().toNanos() / 1_000_000_000.0;
+
+        out.println();
+        out.printf(Locale.ROOT, "Load test: %d tenants x %d contacts (%s storage), %d clients, %s measured%n",
+                options.tenants(), options.contactsPerTenant(), options.storage(), options.clients(),
+                format(options.duration()));
+        out.println("MongoDB: " + mongoDescription);
+        out.printf(Locale.ROOT, "%-24s %9s %7s %9s %9s %9s %9s %9s %9s %10s%n", "operation", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "mongo/req");
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalMongoCommands = 0;
+        for (Map.Entry<String, LoadDriver.OperationResult> entry : results.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            long mongoCommands = mongoCommandsAtEnd.getOrDefault(entry.getKey(), 0L)
+                    - mongoCommandsAtStart.getOrDefault(entry.getKey(), 0L);
+            printRow(out, entry.getKey(), latencies, entry.getValue().errors(), mongoCommands, seconds);
+            total.add(latencies);
+            totalErrors += entry.getValue().errors();
+            totalMongoCommands += mongoCommands;
+            writeDistribution(options.output(), entry.getKey(), latencies);
+        }
+        printRow(out, "total", total, totalErrors, totalMongoCommands, seconds);
+        writeDistribution(options.output(), "total", total);
+        out.println();
+        out.println("Latency distributions written to " + options.output().toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latencies, long errors, long mongoCommands,
+                                 double seconds) {
+        long requests = latencies.getTotalCount();
+        out.printf(Locale.ROOT, "%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %10s%n", name, requests, errors,
+                requests / seconds,
+                millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                latencies.getMaxValue() / NANOS_PER_MILLI,
+                requests == 0 ? "-" : String.format(Locale.ROOT, "%.2f", (double) mongoCommands / requests));
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static void writeDistribution(Path directory, String name, Histogram latencies) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private Map<String, Long> mongoCommandsByOperation() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Timer timer : meterRegistry.find("cms.mongo.command").timers()) {
+            String operation = timer.getId().getTag("operation");
+            if (operation != null) {
+                counts.merge(operation, timer.count(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static String format(Duration duration) {
+        return duration.toString().substring(2).toLowerCase(Locale.ROOT);
+    }
+}
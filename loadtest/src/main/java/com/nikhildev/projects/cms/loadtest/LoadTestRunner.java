@@ -0,0 +1,72 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import com.nikhildev.projects.cms.CmsApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts MongoDB and the application on a random port, seeds the synthetic tenants, drives the GraphQL
+ * workload over HTTP and prints the report. The application runs in this JVM so the report can read its
+ * MongoDB command counts directly from the meter registry.
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        Workload workload;
+        try {
+            options = LoadTestOptions.parse(args);
+            workload = new Workload(options.mix());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println();
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (MongoInstance mongo = MongoInstance.start(options)) {
+            logger.info("Using MongoDB: {}", mongo.description());
+            List<String> arguments = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.data.mongodb.host=" + mongo.host(),
+                    "--spring.data.mongodb.port=" + mongo.port(),
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.nikhildev=WARN",
+                    "--logging.level.de.bwaldvogel.mongo=ERROR",
+                    "--logging.level.com.nikhildev.projects.cms.loadtest=INFO"));
+            arguments.addAll(mongo.applicationArguments());
+            try (ConfigurableApplicationContext context = SpringApplication.run(CmsApplication.class,
+                    arguments.toArray(String[]::new))) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+                long start = System.nanoTime();
+                List<SeededTenant> tenants = new DatasetGenerator(context, options, runId).generate();
+                logger.info("Seeded {} tenants in {} s", tenants.size(), (System.nanoTime() - start) / 1_000_000_000);
+
+                LoadTestReport report = new LoadTestReport(context.getBean(MeterRegistry.class));
+                Map<String, LoadDriver.OperationResult> results = new LoadDriver(port, tenants, workload, options)
+                        .run(report::startMeasurement);
+                report.write(results, options, mongo.description(), System.out);
+            }
+        }
+    }
+}
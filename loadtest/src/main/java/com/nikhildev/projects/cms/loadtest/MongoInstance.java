@@ -0,0 +1,242 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The MongoDB server the application under test connects to: a mongod spawned for the run, the in-memory
+ * stand-in, or a server that is already running.
+ */
+interface MongoInstance extends AutoCloseable {
+
+    String host();
+
+    int port();
+
+    String description();
+
+    /**
+     * Application properties the server needs, as command line arguments.
+     */
+    default List<String> applicationArguments() {
+        return List.of();
+    }
+
+    @Override
+    void close();
+
+    static MongoInstance start(LoadTestOptions options) {
+        LoadTestOptions.MongoMode mode = options.mongo();
+        if (mode == LoadTestOptions.MongoMode.AUTO) {
+            mode = SpawnedMongod.findExecutable(options.mongod()) != null
+                    ? LoadTestOptions.MongoMode.SPAWN : LoadTestOptions.MongoMode.EMBEDDED;
+        }
+        return switch (mode) {
+            case SPAWN -> SpawnedMongod.start(options.mongod());
+            case EMBEDDED -> EmbeddedMongo.start();
+            case EXTERNAL -> new External(options.mongoHost(), options.mongoPort());
+            case AUTO -> throw new IllegalStateException("Unresolved Mongo mode");
+        };
+    }
+
+    record External(String host, int port) implements MongoInstance {
+
+        @Override
+        public String description() {
+            return "external server at " + host + ":" + port;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A mongod with a temporary data directory on a free local port, stopped and removed on close.
+     */
+    final class SpawnedMongod implements MongoInstance {
+
+        private static final Logger logger = LoggerFactory.getLogger(SpawnedMongod.class);
+        private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+        private final Process process;
+        private final Path dataDirectory;
+        private final int port;
+        private final String version;
+
+        private SpawnedMongod(Process process, Path dataDirectory, int port, String version) {
+            this.process = process;
+            this.dataDirectory = dataDirectory;
+            this.port = port;
+            this.version = version;
+        }
+
+        static String findExecutable(String mongod) {
+            if (mongod.contains(File.separator)) {
+                return Files.isExecutable(Path.of(mongod)) ? mongod : null;
+            }
+            String path = System.getenv("PATH");
+            if (path == null) {
+                return null;
+            }
+            return Stream.of(path.split(File.pathSeparator))
+                    .map(directory -> Path.of(directory, mongod))
+                    .filter(Files::isExecutable)
+                    .map(Path::toString)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        static SpawnedMongod start(String mongod) {
+            String executable = findExecutable(mongod);
+            if (executable == null) {
+                throw new IllegalStateException("mongod not found: " + mongod
+                        + "; pass --mongod=/path/to/mongod or use --mongo=EMBEDDED");
+            }
+            try {
+                Path dataDirectory = Files.createTempDirectory("cms-loadtest-mongod");
+                int port = freePort();
+                Path log = dataDirectory.resolve("mongod.log");
+                Process process = new ProcessBuilder(executable, "--dbpath", dataDirectory.toString(),
+                        "--port", String.valueOf(port), "--bind_ip", "127.0.0.1", "--logpath", log.toString())
+                        .redirectErrorStream(true)
+                        .redirectOutput(dataDirectory.resolve("mongod.out").toFile())
+                        .start();
+                String version = awaitStartup(process, port, log);
+                logger.info("Started mongod {} on port {} with data in {}", version, port, dataDirectory);
+                return new SpawnedMongod(process, dataDirectory, port, version);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start mongod", e);
+            }
+        }
+
+        private static String awaitStartup(Process process, int port, Path log) {
+            long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+            try (MongoClient client = MongoClients.create(
+                    "mongodb://127.0.0.1:" + port + "/?serverSelectionTimeoutMS=500&connectTimeoutMS=500")) {
+                while (true) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException("mongod exited with " + process.exitValue() + ", see " + log);
+                    }
+                    try {
+                        Document buildInfo = client.getDatabase("admin").runCommand(new Document("buildInfo", 1));
+                        return buildInfo.getString("version");
+                    } catch (RuntimeException e) {
+                        if (System.nanoTime() > deadline) {
+                            process.destroyForcibly();
+                            throw new IllegalStateException("mongod did not start within " + STARTUP_TIMEOUT
+                                    + ", see " + log, e);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String host() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int port() {
+            return port;
+        }
+
+        @Override
+        public String description() {
+            return "mongod " + version + " spawned on port " + port;
+        }
+
+        @Override
+        public void close() {
+            process.destroy();
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+            try (Stream<Path> paths = Files.walk(dataDirectory)) {
+                List<Path> files = paths.sorted(Comparator.reverseOrder()).toList();
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not remove mongod data directory {}: {}", dataDirectory, e.getMessage());
+            }
+        }
+
+        private static int freePort() throws IOException {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                return socket.getLocalPort();
+            }
+        }
+    }
+
+    /**
+     * An in-memory server speaking the MongoDB wire protocol inside this JVM. It runs the full request path
+     * without a mongod binary, but its query execution scans documents and shares the CPU with the
+     * application, so its latencies do not stand for a real server.
+     */
+    final class EmbeddedMongo implements MongoInstance {
+
+        private final MongoServer server;
+        private final InetSocketAddress address;
+
+        private EmbeddedMongo(MongoServer server, InetSocketAddress address) {
+            this.server = server;
+            this.address = address;
+        }
+
+        static EmbeddedMongo start() {
+            MongoServer server = new MongoServer(new MemoryBackend());
+            return new EmbeddedMongo(server, server.bind());
+        }
+
+        @Override
+        public String host() {
+            return address.getHostString();
+        }
+
+        @Override
+        public int port() {
+            return address.getPort();
+        }
+
+        @Override
+        public String description() {
+            return "in-memory stand-in on port " + address.getPort() + " (latencies are not representative of mongod)";
+        }
+
+        @Override
+        public List<String> applicationArguments() {
+            // The stand-in does not implement the $unionWith stage
+            return List.of("--cms.category-contacts.union-with=false");
+        }
+
+        @Override
+        public void close() {
+            server.shutdownNow();
+        }
+    }
+}
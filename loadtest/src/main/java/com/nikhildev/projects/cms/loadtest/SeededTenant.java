@@ -0,0 +1,21 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A tenant created for the run, with the ids of its seeded data. Contact {@code i} of the tenant has the
+ * name and phone number {@link DatasetGenerator} derives from the tenant number and {@code i}, so updates can resend them.
+ */
+record SeededTenant(int number, String id, String username, String authorization, List<String> contactIds,
+                    List<String> categoryIds, AtomicInteger nextContactNumber) {
+
+    SeededTenant(int number, String id, String username, String password, List<String> contactIds,
+                 List<String> categoryIds) {
+        this(number, id, username, "Basic " + Base64.getEncoder().encodeToString(
+                        (username + ":" + password).getBytes(StandardCharsets.UTF_8)),
+                contactIds, categoryIds, new AtomicInteger(contactIds.size()));
+    }
+}
@@ -0,0 +1,192 @@
+package com.nikhildev.projects.cms.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * The GraphQL operations the clients send, each with a default weight in the mix. Every operation carries an
+ * operation name, which is also the {@code operation} tag of the server's GraphQL and MongoDB metrics.
+ */
+final class Workload {
+
+    record Operation(String name, int defaultWeight, String document,
+                     BiFunction<SeededTenant, Random, Map<String, Object>> variables) {
+    }
+
+    static final List<Operation> OPERATIONS = List.of(
+            new Operation("ListContacts", 20, """
+                    query ListContacts($page: Int) {
+                      contacts(page: $page, pageSize: 20) {
+                        content { id contactName phone email }
+                        totalElements totalPages
+                      }
+                    }""",
+                    (tenant, random) -> Map.of("page", random.nextInt(5))),
+            new Operation("SearchContactsByName", 15, """
+                    query SearchContactsByName($contactName: String) {
+                      contacts(contactName: $contactName, pageSize: 20) {
+                        content { id contactName phone }
+                        last
+                      }
+                    }""",
+                    (tenant, random) -> Map.of("contactName", namePrefix(tenant, random))),
+            new Operation("SearchContactsByPhone", 10, """
+                    query SearchContactsByPhone($phone: String) {
+                      contacts(phone: $phone, pageSize: 20) {
+                        content { id contactName phone }
+                        last
+                      }
+                    }""",
+                    (tenant, random) -> Map.of("phone", phoneSuffix(tenant, random))),
+            new Operation("ScrollContacts", 10, """
+                    query ScrollContacts {
+                      contactsConnection(first: 20) {
+                        edges { cursor node { id contactName phone } }
+                        pageInfo { hasNextPage endCursor }
+                      }
+                    }""",
+                    (tenant, random) -> Map.of()),
+            new Operation("GetContact", 15, """
+                    query GetContact($id: ID!) {
+                      contact(id: $id) {
+                        id contactName phone email
+                        categories { content { id categoryName } }
+                      }
+                    }""",
+                    (tenant, random) -> Map.of("id", randomContactId(tenant, random))),
+            new Operation("ListCategories", 10, """
+                    query ListCategories {
+                      categories(pageSize: 20) {
+                        content { id categoryName description }
+                        totalElements
+                      }
+                    }""",
+                    (tenant, random) -> Map.of()),
+            new Operation("ContactsWithCategories", 8, """
+                    query ContactsWithCategories($page: Int) {
+                      contacts(page: $page, pageSize: 20) {
+                        content {
+                          id contactName
+                          categories(pageSize: 5) { content { id categoryName } }
+                        }
+                      }
+                    }""",
+                    (tenant, random) -> Map.of("page", random.nextInt(5))),
+            new Operation("CategoriesWithContacts", 5, """
+                    query CategoriesWithContacts {
+                      categories(pageSize: 10) {
+                        content {
+                          id categoryName
+                          contacts(pageSize: 10) { content { id contactName } totalElements }
+                        }
+                      }
+                    }""",
+                    (tenant, random) -> Map.of()),
+            new Operation("CreateContact", 4, """
+                    mutation CreateContact($input: ContactInput!) {
+                      createContact(input: $input) { id }
+                    }""",
+                    Workload::newContact),
+            new Operation("UpdateContact", 3, """
+                    mutation UpdateContact($id: ID!, $input: ContactInput!) {
+                      updateContact(id: $id, input: $input) { id email }
+                    }""",
+                    Workload::contactUpdate));
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    /**
+     * @param mix weights by operation name, or null for the default weights of all operations
+     */
+    Workload(Map<String, Integer> mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        if (mix == null) {
+            OPERATIONS.forEach(operation -> weights.put(operation.name(), operation.defaultWeight()));
+        } else {
+            mix.forEach((name, weight) -> {
+                if (OPERATIONS.stream().noneMatch(operation -> operation.name().equals(name))) {
+                    throw new IllegalArgumentException("Unknown operation in mix: " + name + "; known operations: "
+                            + OPERATIONS.stream().map(Operation::name).toList());
+                }
+                weights.put(name, weight);
+            });
+        }
+        OPERATIONS.stream()
+                .filter(operation -> weights.getOrDefault(operation.name(), 0) > 0)
+                .forEach(operations::add);
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The mix does not contain any operation with a positive weight");
+        }
+        cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += weights.get(operations.get(i).name());
+            cumulativeWeights[i] = total;
+        }
+        totalWeight = total;
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    int weight(Operation operation) {
+        int index = operations.indexOf(operation);
+        return cumulativeWeights[index] - (index == 0 ? 0 : cumulativeWeights[index - 1]);
+    }
+
+    private static int randomSeededNumber(SeededTenant tenant, Random random) {
+        return random.nextInt(tenant.contactIds().size());
+    }
+
+    private static String randomContactId(SeededTenant tenant, Random random) {
+        return tenant.contactIds().get(randomSeededNumber(tenant, random));
+    }
+
+    /**
+     * A first name and the start of a last name, which matches about one in 500 seeded contacts.
+     */
+    private static String namePrefix(SeededTenant tenant, Random random) {
+        String name = DatasetGenerator.contactName(randomSeededNumber(tenant, random));
+        String[] parts = name.split(" ");
+        return parts[0] + " " + parts[1].substring(0, Math.min(3, parts[1].length()));
+    }
+
+    private static String phoneSuffix(SeededTenant tenant, Random random) {
+        String phone = DatasetGenerator.phone(tenant.number(), randomSeededNumber(tenant, random));
+        return phone.substring(phone.length() - 5);
+    }
+
+    private static Map<String, Object> newContact(SeededTenant tenant, Random random) {
+        int number = tenant.nextContactNumber().getAndIncrement();
+        return Map.of("input", Map.of(
+                "contactName", DatasetGenerator.contactName(number),
+                "phone", DatasetGenerator.phone(tenant.number(), number),
+                "email", "created" + number + "@loadtest.example.com",
+                "categoryIds", List.of(tenant.categoryIds().get(random.nextInt(tenant.categoryIds().size())))));
+    }
+
+    private static Map<String, Object> contactUpdate(SeededTenant tenant, Random random) {
+        int number = randomSeededNumber(tenant, random);
+        return Map.of("id", tenant.contactIds().get(number), "input", Map.of(
+                "contactName", DatasetGenerator.contactName(number),
+                "phone", DatasetGenerator.phone(tenant.number(), number),
+                "email", "updated" + random.nextInt(1_000_000) + "@loadtest.example.com"));
+    }
+}
@@ -0,0 +1,260 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.nikhildev.projects.cms.services.CategoryCache;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process caches of this node consistent with writes made by other nodes. A single cluster-wide
+ * change stream, filtered to the tenants collection of the default database and the categories of every
+ * tenant database and of the shared database, is tailed on a background thread and each event evicts the
+ * affected cache entries.
+ * The resume token is persisted per node so that a restart or reconnect continues where it stopped; when
+ * the stream cannot be resumed, all caches are cleared instead. Requires MongoDB to run as a replica set.
+ */
+@Component
+public class ChangeStreamCacheInvalidator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamCacheInvalidator.class);
+    private static final String DEFAULT_DB = TenantDatabases.DEFAULT_DB;
+    private static final String TENANT_DB_PREFIX = TenantDatabases.TENANT_DB_PREFIX;
+    private static final String RESUME_TOKENS_COLLECTION = "changeStreamResumeTokens";
+    private static final Duration MAX_AWAIT_TIME = Duration.ofSeconds(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final MongoClient mongoClient;
+    private final CredentialCache credentialCache;
+    private final CategoryCache categoryCache;
+    private final TenantDatabases tenantDatabases;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration tokenSaveInterval;
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    @Autowired
+    public ChangeStreamCacheInvalidator(MongoClient mongoClient,
+                                        CredentialCache credentialCache,
+                                        CategoryCache categoryCache,
+                                        TenantDatabases tenantDatabases,
+                                        @Value("${cms.cache.change-streams.enabled:false}") boolean enabled,
+                                        @Value("${cms.cache.change-streams.node-id:}") String nodeId,
+                                        @Value("${cms.cache.change-streams.token-save-interval:1s}") Duration tokenSaveInterval) {
+        this.mongoClient = mongoClient;
+        this.credentialCache = credentialCache;
+        this.categoryCache = categoryCache;
+        this.tenantDatabases = tenantDatabases;
+        this.enabled = enabled;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : hostName();
+        this.tokenSaveInterval = tokenSaveInterval;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.debug("Change stream cache invalidation is disabled");
+            return;
+        }
+        running = true;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.submit(this::tail);
+        logger.info("Started change stream cache invalidation for node: {}", nodeId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(MAX_AWAIT_TIME.toMillis() * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tail() {
+        BsonDocument resumeToken = loadResumeToken();
+        while (running) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoClient.watch(List.of(Aggregates.match(eventFilter())))
+                        // Updated shared categories are looked up to learn their tenant
+                        .fullDocument(FullDocument.UPDATE_LOOKUP)
+                        .maxAwaitTime(MAX_AWAIT_TIME.toMillis(), TimeUnit.MILLISECONDS);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                Instant lastSave = Instant.now();
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                    while (running) {
+                        ChangeStreamDocument<Document> event = cursor.tryNext();
+                        if (event != null) {
+                            invalidate(event);
+                        }
+                        BsonDocument token = cursor.getResumeToken();
+                        if (token != null && !token.equals(resumeToken)) {
+                            resumeToken = token;
+                            if (Duration.between(lastSave, Instant.now()).compareTo(tokenSaveInterval) >= 0) {
+                                saveResumeToken(resumeToken);
+                                lastSave = Instant.now();
+                            }
+                        }
+                    }
+                }
+                if (resumeToken != null) {
+                    saveResumeToken(resumeToken);
+                }
+            } catch (MongoException e) {
+                // Events may have been missed; stale entries are worse than cold caches
+                logger.warn("Change stream for cache invalidation failed, clearing caches: {}", e.getMessage());
+                credentialCache.clear();
+                categoryCache.clear();
+                if (e.getCode() == 286 || e.getCode() == 280) {
+                    // ChangeStreamHistoryLost / ChangeStreamFatalError: the token can no longer be resumed
+                    resumeToken = null;
+                }
+                sleep(RETRY_DELAY);
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in cache invalidation", e);
+                sleep(RETRY_DELAY);
+            }
+        }
+    }
+
+    private void invalidate(ChangeStreamDocument<Document> event) {
+        if (event.getNamespace() == null && event.getDatabaseName() == null) {
+            return;
+        }
+        String database = event.getDatabaseName();
+        if (DEFAULT_DB.equals(database)) {
+            String tenantId = documentId(event);
+            if (tenantId != null) {
+                logger.debug("Tenant {} changed ({}), evicting cached credentials", tenantId, event.getOperationTypeString());
+                credentialCache.evictTenant(tenantId);
+                // The tenant's storage may have been migrated
+                tenantDatabases.evict(tenantId);
+                if (event.getOperationType() == OperationType.DELETE) {
+                    categoryCache.invalidate(tenantId);
+                }
+            }
+        } else if (tenantDatabases.getSharedDatabaseName().equals(database)) {
+            Document category = event.getFullDocument();
+            String tenantId = category != null ? category.getString(TenantDatabases.TENANT_ID_FIELD) : null;
+            if (tenantId != null) {
+                logger.debug("[Tenant: {}] Shared categories changed ({}), evicting cached categories",
+                        tenantId, event.getOperationTypeString());
+                categoryCache.invalidate(tenantId);
+            } else {
+                // Deletes do not carry the document, so its tenant is unknown
+                logger.debug("Shared categories changed ({}), clearing cached categories", event.getOperationTypeString());
+                categoryCache.clear();
+            }
+        } else if (database != null && database.startsWith(TENANT_DB_PREFIX)) {
+            String tenantId = database.substring(TENANT_DB_PREFIX.length());
+            logger.debug("[Tenant: {}] Categories changed ({}), evicting cached categories",
+                    tenantId, event.getOperationTypeString());
+            categoryCache.invalidate(tenantId);
+        }
+    }
+
+    private Bson eventFilter() {
+        return Filters.or(
+                Filters.and(Filters.eq("ns.db", DEFAULT_DB), Filters.eq("ns.coll", "tenants")),
+                Filters.and(Filters.eq("ns.db", tenantDatabases.getSharedDatabaseName()),
+                        Filters.eq("ns.coll", "categories")),
+                Filters.and(Filters.regex("ns.db", "^" + TENANT_DB_PREFIX),
+                        Filters.or(Filters.eq("ns.coll", "categories"),
+                                Filters.eq("operationType", OperationType.DROP_DATABASE.getValue()))));
+    }
+
+    private static String documentId(ChangeStreamDocument<Document> event) {
+        BsonDocument documentKey = event.getDocumentKey();
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.isString() ? id.asString().getValue() : null;
+    }
+
+    private BsonDocument loadResumeToken() {
+        try {
+            Document saved = resumeTokens().find(Filters.eq("_id", nodeId)).first();
+            if (saved != null && saved.get("token") instanceof Document token) {
+                logger.info("Resuming cache invalidation change stream for node: {}", nodeId);
+                return token.toBsonDocument();
+            }
+        } catch (MongoException e) {
+            logger.warn("Could not load change stream resume token: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        try {
+            Document entry = new Document("_id", nodeId).append("token", token).append("updatedAt", new Date());
+            resumeTokens().replaceOne(Filters.eq("_id", nodeId), entry, new ReplaceOptions().upsert(true));
+        } catch (MongoException e) {
+            logger.warn("Could not save change stream resume token: {}", e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> resumeTokens() {
+        return mongoClient.getDatabase(DEFAULT_DB).getCollection(RESUME_TOKENS_COLLECTION);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nikhildev.projects.cms.config;
+
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.Tenant;
+import com.nikhildev.projects.cms.repositories.TenantRepository;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Fills the normalized name and phone search fields and the version for contacts written before they
+ * existed, so that those contacts stay visible to the indexed searches and can be updated.
+ */
+@Component
+public class ContactSearchBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSearchBackfill.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final TenantRepository tenantRepository;
+    private final MongoTemplate mongoTemplate;
+    private final TenantContext tenantContext;
+    private final PhoneNormalizer phoneNormalizer;
+
+    @Autowired
+    public ContactSearchBackfill(TenantRepository tenantRepository, MongoTemplate mongoTemplate,
+                                 TenantContext tenantContext, PhoneNormalizer phoneNormalizer) {
+        this.tenantRepository = tenantRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.tenantContext = tenantContext;
+        this.phoneNormalizer = phoneNormalizer;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (Tenant tenant : tenantRepository.findAll()) {
+            if ("ADMIN".equalsIgnoreCase(tenant.getRole())) {
+                continue;
+            }
+            long updated = tenantContext.callAsTenant(tenant.getId(), this::backfillCurrentTenant);
+            if (updated > 0) {
+                logger.info("[Tenant: {}] Backfilled search fields for {} contacts", tenant.getId(), updated);
+            }
+            long versioned = tenantContext.callAsTenant(tenant.getId(), this::backfillVersions);
+            if (versioned > 0) {
+                logger.info("[Tenant: {}] Initialized version of {} contacts", tenant.getId(), versioned);
+            }
+        }
+    }
+
+    /**
+     * Contacts saved before optimistic locking have no version; without one they would be treated as new
+     * documents on save and fail with a duplicate key.
+     */
+    private long backfillVersions() {
+        Query query = Query.query(Criteria.where("version").exists(false));
+        return mongoTemplate.updateMulti(query, Update.update("version", 0L), Contact.class).getModifiedCount();
+    }
+
+    private long backfillCurrentTenant() {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("nameTokens").exists(false),
+                Criteria.where("phoneDigits").exists(false)));
+        query.fields().include("contactName", "phone");
+        long updated = 0;
+        try (Stream<Contact> contacts = mongoTemplate.stream(query, Contact.class)) {
+            Iterator<Contact> iterator = contacts.iterator();
+            while (iterator.hasNext()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Contact.class);
+                int batched = 0;
+                while (iterator.hasNext() && batched < BATCH_SIZE) {
+                    Contact contact = iterator.next();
+                    contact.refreshSearchFields();
+                    contact.applyPhoneDigits(phoneNormalizer.canonicalize(contact.getPhone()));
+                    Update update = Update.update("nameTokens", contact.getNameTokens());
+                    if (contact.getPhoneDigits() != null) {
+                        update.set("phoneDigits", contact.getPhoneDigits())
+                                .set("phoneDigitsReversed", contact.getPhoneDigitsReversed());
+                    }
+                    // Phones without digits stay without phoneDigits; a null would collide on the unique index
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(contact.getId())), update);
+                    batched++;
+                }
+                try {
+                    updated += bulk.execute().getModifiedCount();
+                } catch (BulkOperationException e) {
+                    // Legacy contacts whose numbers collide once canonicalized keep their old fields
+                    logger.warn("Skipped {} contacts while backfilling search fields: {}",
+                            e.getErrors().size(), e.getMessage());
+                    updated += e.getResult().getModifiedCount();
+                }
+            }
+        }
+        return updated;
+    }
+}
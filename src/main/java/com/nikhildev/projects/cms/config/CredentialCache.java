@@ -0,0 +1,115 @@
+package com.nikhildev.projects.cms.config;
+
+import com.nikhildev.projects.cms.models.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-based cache of recently verified credentials. Secrets are never stored; each entry keeps an
+ * HMAC of the supplied password keyed with a per-process random key, so only the first request in a TTL
+ * window pays for the BCrypt comparison and the tenant lookup.
+ */
+@Component
+public class CredentialCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialCache.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final SecretKey hmacKey;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public CredentialCache(@Value("${cms.security.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${cms.security.credential-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        try {
+            this.hmacKey = KeyGenerator.getInstance(HMAC_ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize credential cache", e);
+        }
+    }
+
+    public Tenant get(String username, String password) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(username, entry);
+            return null;
+        }
+        if (!MessageDigest.isEqual(entry.secretDigest(), digest(password))) {
+            return null;
+        }
+        return entry.tenant();
+    }
+
+    public void put(String username, String password, Tenant tenant) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+        }
+        if (entries.size() >= maxSize) {
+            Iterator<String> usernames = entries.keySet().iterator();
+            if (usernames.hasNext()) {
+                usernames.next();
+                usernames.remove();
+            }
+        }
+        entries.put(username, new Entry(digest(password), tenant, System.nanoTime() + ttlNanos));
+    }
+
+    public void evict(String username) {
+        if (username != null && entries.remove(username) != null) {
+            logger.debug("Evicted cached credentials for user: {}", username);
+        }
+    }
+
+    /**
+     * Evicts the credentials of the given tenant when its username is not known, e.g. after a remote change.
+     */
+    public void evictTenant(String tenantId) {
+        if (entries.values().removeIf(entry -> tenantId.equals(entry.tenant().getId()))) {
+            logger.debug("Evicted cached credentials for tenant: {}", tenantId);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+    }
+
+    private byte[] digest(String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to hash credentials", e);
+        }
+    }
+
+    private record Entry(byte[] secretDigest, Tenant tenant, long expiresAt) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.nikhildev.projects.cms.config;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.data.method.HandlerMethod;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs blocking controller data fetchers on a dedicated pool instead of the request thread, so that sibling
+ * fields of one query are fetched in parallel. Fetchers that already return a future or publisher, such as
+ * the DataLoader-backed nested fields, stay on the calling thread. Each task runs with a context snapshot of
+ * the thread that submitted it, which carries the tenant and the security context. When the pool and its
+ * queue are full the submitting thread runs the fetcher itself, which throttles new work instead of
+ * rejecting it.
+ */
+@Configuration
+public class GraphQLAsyncConfig {
+
+    @Bean
+    public static BeanPostProcessor asyncDataFetcherPostProcessor(
+            @Value("${cms.graphql.async.enabled:true}") boolean enabled,
+            @Value("${cms.graphql.async.core-size:16}") int coreSize,
+            @Value("${cms.graphql.async.max-size:64}") int maxSize,
+            @Value("${cms.graphql.async.queue-capacity:1000}") int queueCapacity) {
+        return new AsyncDataFetcherPostProcessor(enabled, coreSize, maxSize, queueCapacity);
+    }
+
+    private static class AsyncDataFetcherPostProcessor implements BeanPostProcessor, DisposableBean {
+
+        private static final Logger logger = LoggerFactory.getLogger(AsyncDataFetcherPostProcessor.class);
+
+        private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+        private final boolean enabled;
+        private final int coreSize;
+        private final int maxSize;
+        private final int queueCapacity;
+        private ThreadPoolTaskExecutor executor;
+
+        AsyncDataFetcherPostProcessor(boolean enabled, int coreSize, int maxSize, int queueCapacity) {
+            this.enabled = enabled;
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (enabled && bean instanceof AnnotatedControllerConfigurer configurer) {
+                executor = createExecutor();
+                configurer.setExecutor(executor);
+                configurer.setBlockingMethodPredicate(AsyncDataFetcherPostProcessor::isBlocking);
+                logger.info("GraphQL data fetchers run asynchronously on up to {} threads", maxSize);
+            }
+            return bean;
+        }
+
+        @Override
+        public void destroy() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        private ThreadPoolTaskExecutor createExecutor() {
+            ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+            taskExecutor.setThreadNamePrefix("graphql-fetcher-");
+            taskExecutor.setCorePoolSize(coreSize);
+            taskExecutor.setMaxPoolSize(maxSize);
+            taskExecutor.setQueueCapacity(queueCapacity);
+            taskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            taskExecutor.setTaskDecorator(task -> snapshotFactory.captureAll().wrap(task));
+            taskExecutor.initialize();
+            return taskExecutor;
+        }
+
+        private static boolean isBlocking(HandlerMethod handlerMethod) {
+            Class<?> returnType = handlerMethod.getReturnType().getParameterType();
+            return !CompletionStage.class.isAssignableFrom(returnType)
+                    && !Publisher.class.isAssignableFrom(returnType)
+                    && !Callable.class.isAssignableFrom(returnType);
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.nikhildev.projects.cms.config;
 
 import com.nikhildev.projects.cms.exceptions.ResourceAlreadyExistsException;
 import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
+import com.nikhildev.projects.cms.exceptions.TenantMigrationInProgressException;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolver;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
@@ -38,6 +40,27 @@ public class GraphQLErrorHandler implements DataFetcherExceptionResolver {
                     .path(environment.getExecutionStepInfo().getPath())
                     .location(environment.getField().getSourceLocation())
                     .build();
+        } else if (exception instanceof OptimisticLockingFailureException) {
+            logger.error("Concurrent modification: {}", exception.getMessage());
+            error = GraphqlErrorBuilder.newError()
+                    .message("Concurrent modification: the resource was changed by another request, please retry")
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .build();
+        } else if (exception instanceof TenantMigrationInProgressException) {
+            logger.warn("Write during storage migration: {}", exception.getMessage());
+            error = GraphqlErrorBuilder.newError()
+                    .message("Temporarily unavailable: the tenant's data is being migrated, please retry shortly")
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .build();
+        } else if (exception instanceof IllegalArgumentException) {
+            logger.error("Invalid request: {}", exception.getMessage());
+            error = GraphqlErrorBuilder.newError()
+                    .message("Invalid request: " + exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .build();
         } else if (exception instanceof AccessDeniedException) {
             logger.error("Access denied: {}", exception.getMessage());
             error = GraphqlErrorBuilder.newError()
@@ -0,0 +1,121 @@
+package com.nikhildev.projects.cms.config;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every GraphQL operation ({@code cms.graphql.operation}) and of every non-trivial
+ * field fetch ({@code cms.graphql.field}), tagged with the tenant and the operation name. Plain property
+ * reads are not timed. While a fetcher runs, the operation name is bound to {@link GraphQLOperationContext}
+ * so that the MongoDB commands it issues are tagged with it as well.
+ */
+@Component
+public class GraphQLMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public GraphQLMetricsInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationState(MetricsConfig.tenantTag(TenantContext.currentTenantId()));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        OperationState operation = (OperationState) state;
+        long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> Timer.builder("cms.graphql.operation")
+                .description("Latency of GraphQL operations")
+                .tag(MetricsConfig.TENANT_TAG, operation.tenant)
+                .tag(MetricsConfig.OPERATION_TAG, operation.name)
+                .tag("type", operation.type)
+                .tag("outcome", throwable == null && result.getErrors().isEmpty() ? "success" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        OperationState operation = (OperationState) state;
+        OperationDefinition definition = parameters.getExecutionContext().getOperationDefinition();
+        operation.name = definition.getName() != null ? definition.getName() : ANONYMOUS;
+        operation.type = definition.getOperation().name().toLowerCase(Locale.ROOT);
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+        OperationState operation = (OperationState) state;
+        String field = parameters.getExecutionStepInfo().getObjectType().getName() + "." + parameters.getField().getName();
+        return environment -> {
+            long start = System.nanoTime();
+            String previousOperation = GraphQLOperationContext.bind(operation.name);
+            try {
+                Object value = dataFetcher.get(environment);
+                if (value instanceof CompletionStage<?> stage) {
+                    stage.whenComplete((result, throwable) -> recordField(operation, field, start, throwable == null));
+                } else {
+                    recordField(operation, field, start, true);
+                }
+                return value;
+            } catch (Exception e) {
+                recordField(operation, field, start, false);
+                throw e;
+            } finally {
+                GraphQLOperationContext.bind(previousOperation);
+            }
+        };
+    }
+
+    private void recordField(OperationState operation, String field, long start, boolean success) {
+        Timer.builder("cms.graphql.field")
+                .description("Latency of GraphQL field fetches")
+                .tag(MetricsConfig.TENANT_TAG, operation.tenant)
+                .tag(MetricsConfig.OPERATION_TAG, operation.name)
+                .tag("field", field)
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static class OperationState implements InstrumentationState {
+
+        private final String tenant;
+        // Set once the operation is known; requests that fail to parse or validate keep the defaults
+        private volatile String name = ANONYMOUS;
+        private volatile String type = "unknown";
+
+        OperationState(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.nikhildev.projects.cms.config;
+
+/**
+ * Holds the name of the GraphQL operation whose data fetcher runs on the current thread, so that database
+ * metrics can be attributed to the query that caused them. Set by {@link GraphQLMetricsInstrumentation} and
+ * carried across threads by {@link GraphQLOperationThreadLocalAccessor}.
+ */
+public final class GraphQLOperationContext {
+
+    private static final ThreadLocal<String> currentOperation = new ThreadLocal<>();
+
+    private GraphQLOperationContext() {
+    }
+
+    public static String currentOperation() {
+        return currentOperation.get();
+    }
+
+    /**
+     * @return the previously bound operation, to be restored by the caller
+     */
+    static String bind(String operation) {
+        String previous = currentOperation.get();
+        if (operation == null) {
+            currentOperation.remove();
+        } else {
+            currentOperation.set(operation);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,32 @@
+package com.nikhildev.projects.cms.config;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Exposes the {@link GraphQLOperationContext} value to Micrometer context propagation, so the operation name
+ * follows a data fetcher onto the async pool just like the tenant does.
+ */
+public class GraphQLOperationThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    public static final String KEY = "cms.graphqlOperation";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return GraphQLOperationContext.currentOperation();
+    }
+
+    @Override
+    public void setValue(String operation) {
+        GraphQLOperationContext.bind(operation);
+    }
+
+    @Override
+    public void setValue() {
+        GraphQLOperationContext.bind(null);
+    }
+}
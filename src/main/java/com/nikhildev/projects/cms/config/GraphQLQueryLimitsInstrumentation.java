@@ -0,0 +1,209 @@
+package com.nikhildev.projects.cms.config;
+
+import com.nikhildev.projects.cms.models.Tenant;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.QueryComplexityCalculator;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.schema.GraphQLFieldDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rejects GraphQL operations whose estimated cost, nesting depth or page size exceeds the caller's limits
+ * before any field is fetched. The cost counts every selected field once per item the enclosing lists can
+ * return, so each level of {@code pageSize} (or {@code first}/{@code last} on connections) multiplies the
+ * cost of the fields below it. This bounds queries that nest {@code Category.contacts} and
+ * {@code Contact.categories} into each other. The configured limits apply unless the authenticated tenant
+ * overrides them, and the computed cost is returned in the {@code cost} response extension.
+ */
+@Component
+public class GraphQLQueryLimitsInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphQLQueryLimitsInstrumentation.class);
+    private static final String PAGE_SIZE = "pageSize";
+    private static final String FIRST = "first";
+    private static final String LAST = "last";
+    // Matches the window size the connection resolvers use when neither first nor last is given
+    private static final int DEFAULT_CONNECTION_SIZE = 20;
+
+    private final boolean enabled;
+    private final Limits defaultLimits;
+
+    public GraphQLQueryLimitsInstrumentation(@Value("${cms.graphql.limits.enabled:true}") boolean enabled,
+                                             @Value("${cms.graphql.limits.max-cost:10000}") int maxCost,
+                                             @Value("${cms.graphql.limits.max-depth:10}") int maxDepth,
+                                             @Value("${cms.graphql.limits.max-page-size:100}") int maxPageSize) {
+        this.enabled = enabled;
+        this.defaultLimits = new Limits(maxCost, maxDepth, maxPageSize);
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return enabled ? new LimitsState(limitsOf(SecurityContextHolder.getContext().getAuthentication())) : null;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        if (state instanceof LimitsState limitsState) {
+            ExecutionContext executionContext = parameters.getExecutionContext();
+            QueryCost cost = estimate(executionContext);
+            limitsState.cost = cost;
+            String violation = violation(cost, limitsState.limits);
+            if (violation != null) {
+                String operationName = executionContext.getOperationDefinition().getName();
+                logger.warn("[Tenant: {}] Rejected GraphQL operation {}: {}", TenantContext.currentTenantId(),
+                        operationName != null ? operationName : "anonymous", violation);
+                throw new AbortExecutionException(violation);
+            }
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters,
+                                                                        InstrumentationState state) {
+        if (!(state instanceof LimitsState limitsState) || limitsState.cost == null) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        QueryCost cost = limitsState.cost;
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("estimated", cost.cost());
+        extension.put("maxCost", limitsState.limits.maxCost());
+        extension.put("depth", cost.depth());
+        extension.put("maxDepth", limitsState.limits.maxDepth());
+        return CompletableFuture.completedFuture(ExecutionResultImpl.newExecutionResult()
+                .from(executionResult)
+                .addExtension("cost", extension)
+                .build());
+    }
+
+    private Limits limitsOf(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof Tenant tenant)
+                || tenant.getQueryLimits() == null) {
+            return defaultLimits;
+        }
+        Tenant.QueryLimits overrides = tenant.getQueryLimits();
+        return new Limits(
+                overrides.getMaxCost() != null ? overrides.getMaxCost() : defaultLimits.maxCost(),
+                overrides.getMaxDepth() != null ? overrides.getMaxDepth() : defaultLimits.maxDepth(),
+                overrides.getMaxPageSize() != null ? overrides.getMaxPageSize() : defaultLimits.maxPageSize());
+    }
+
+    private static String violation(QueryCost cost, Limits limits) {
+        if (cost.maxPageSize() > limits.maxPageSize()) {
+            return "Page size " + cost.maxPageSize() + " exceeds the maximum of " + limits.maxPageSize();
+        }
+        if (cost.depth() > limits.maxDepth()) {
+            return "Query depth " + cost.depth() + " exceeds the maximum of " + limits.maxDepth();
+        }
+        if (cost.cost() > limits.maxCost()) {
+            return "Query cost " + cost.cost() + " exceeds the maximum of " + limits.maxCost()
+                    + "; request smaller pages or fewer nested lists";
+        }
+        return null;
+    }
+
+    /**
+     * Computes the cost, depth and largest page size of the operation in a single pass over its fields, with
+     * variables and argument defaults applied. Introspection fields are free, so schema tooling keeps working.
+     */
+    private static QueryCost estimate(ExecutionContext executionContext) {
+        int[] depth = {0};
+        int[] maxPageSize = {0};
+        int cost = QueryComplexityCalculator.newCalculator()
+                .schema(executionContext.getGraphQLSchema())
+                .document(executionContext.getDocument())
+                .operationName(executionContext.getExecutionInput().getOperationName())
+                .variables(executionContext.getCoercedVariables())
+                .fieldComplexityCalculator((environment, childCost) -> {
+                    if (isIntrospection(environment)) {
+                        return 0;
+                    }
+                    depth[0] = Math.max(depth[0], depth(environment));
+                    int pageSize = pageSize(environment);
+                    if (pageSize < 0) {
+                        return saturate(1L + childCost);
+                    }
+                    maxPageSize[0] = Math.max(maxPageSize[0], pageSize);
+                    return saturate(1L + (long) pageSize * childCost);
+                })
+                .build()
+                .calculate();
+        return new QueryCost(cost, depth[0], maxPageSize[0]);
+    }
+
+    /**
+     * @return the number of items the field can return, or -1 if it does not take a page size
+     */
+    private static int pageSize(FieldComplexityEnvironment environment) {
+        GraphQLFieldDefinition definition = environment.getFieldDefinition();
+        Map<String, Object> arguments = environment.getArguments();
+        if (definition.getArgument(PAGE_SIZE) != null) {
+            return arguments.get(PAGE_SIZE) instanceof Integer pageSize ? Math.max(pageSize, 0) : 0;
+        }
+        if (definition.getArgument(FIRST) != null || definition.getArgument(LAST) != null) {
+            Integer first = (Integer) arguments.get(FIRST);
+            Integer last = (Integer) arguments.get(LAST);
+            if (first == null && last == null) {
+                return DEFAULT_CONNECTION_SIZE;
+            }
+            return Math.max(first != null ? first : 0, last != null ? last : 0);
+        }
+        return -1;
+    }
+
+    private static int depth(FieldComplexityEnvironment environment) {
+        int depth = 1;
+        for (FieldComplexityEnvironment parent = environment.getParentEnvironment(); parent != null;
+             parent = parent.getParentEnvironment()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static boolean isIntrospection(FieldComplexityEnvironment environment) {
+        return environment.getField().getName().startsWith("__")
+                || environment.getParentType().getName().startsWith("__");
+    }
+
+    private static int saturate(long cost) {
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    private record Limits(int maxCost, int maxDepth, int maxPageSize) {
+    }
+
+    private record QueryCost(int cost, int depth, int maxPageSize) {
+    }
+
+    private static class LimitsState implements InstrumentationState {
+
+        private final Limits limits;
+        // Set once the operation has been analyzed; requests that fail to parse or validate have no cost
+        private volatile QueryCost cost;
+
+        LimitsState(Limits limits) {
+            this.limits = limits;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.nikhildev.projects.cms.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared tags of the GraphQL and MongoDB metrics. Tenant ids and operation names come from requests, so the
+ * number of distinct values reported per tag is bounded; later values are reported as {@value #OTHER}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String METRIC_PREFIX = "cms.";
+    static final String TENANT_TAG = "tenant";
+    static final String OPERATION_TAG = "operation";
+    static final String NONE = "none";
+    static final String OTHER = "other";
+
+    static String tenantTag(String tenantId) {
+        return tenantId != null ? tenantId : NONE;
+    }
+
+    static String operationTag(String operation) {
+        return operation != null ? operation : NONE;
+    }
+
+    @Bean
+    public MeterFilter boundedRequestTagsFilter(@Value("${cms.metrics.max-tag-values:100}") int maxTagValues) {
+        return new BoundedTagValuesFilter(Set.of(TENANT_TAG, OPERATION_TAG), maxTagValues);
+    }
+
+    private static class BoundedTagValuesFilter implements MeterFilter {
+
+        private final Map<String, Set<String>> seenValues = new ConcurrentHashMap<>();
+        private final Set<String> tagKeys;
+        private final int maxValues;
+
+        BoundedTagValuesFilter(Set<String> tagKeys, int maxValues) {
+            this.tagKeys = tagKeys;
+            this.maxValues = maxValues;
+        }
+
+        @Override
+        public Meter.Id map(Meter.Id id) {
+            if (!id.getName().startsWith(METRIC_PREFIX)) {
+                return id;
+            }
+            List<Tag> tags = null;
+            for (Tag tag : id.getTagsAsIterable()) {
+                if (tagKeys.contains(tag.getKey()) && !admit(tag.getKey(), tag.getValue())) {
+                    if (tags == null) {
+                        tags = new ArrayList<>();
+                        id.getTagsAsIterable().forEach(tags::add);
+                    }
+                    tags.replaceAll(existing -> existing.getKey().equals(tag.getKey())
+                            ? Tag.of(tag.getKey(), OTHER) : existing);
+                }
+            }
+            return tags != null ? id.replaceTags(tags) : id;
+        }
+
+        private boolean admit(String key, String value) {
+            Set<String> values = seenValues.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+            if (values.contains(value)) {
+                return true;
+            }
+            // Racing registrations may admit a few values over the limit, which is harmless
+            if (values.size() >= maxValues) {
+                return false;
+            }
+            values.add(value);
+            return true;
+        }
+    }
+}
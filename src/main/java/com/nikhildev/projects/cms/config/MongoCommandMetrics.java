@@ -0,0 +1,107 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every MongoDB command ({@code cms.mongo.command}) along with the documents
+ * ({@code cms.mongo.command.documents}) and bytes ({@code cms.mongo.command.response.size}) it returned,
+ * tagged with the tenant, the GraphQL operation, the command and the collection. The tenant and operation
+ * are taken from the thread that starts the command.
+ */
+@Component
+public class MongoCommandMetrics implements CommandListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, Tags> startedCommands = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MongoCommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        startedCommands.put(event.getRequestId(), Tags.of(
+                MetricsConfig.TENANT_TAG, MetricsConfig.tenantTag(TenantContext.currentTenantId()),
+                MetricsConfig.OPERATION_TAG, MetricsConfig.operationTag(GraphQLOperationContext.currentOperation()),
+                "command", event.getCommandName(),
+                "collection", collection(event.getCommand(), event.getCommandName())));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Tags tags = startedCommands.remove(event.getRequestId());
+        if (tags == null) {
+            return;
+        }
+        recordLatency(tags.and("outcome", "success"), event.getElapsedTime(TimeUnit.NANOSECONDS));
+        BsonDocument response = event.getResponse();
+        if (response instanceof RawBsonDocument rawResponse) {
+            DistributionSummary.builder("cms.mongo.command.response.size")
+                    .description("Size of MongoDB command responses")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(rawResponse.getByteBuffer().remaining());
+        }
+        int documents = returnedDocuments(response);
+        if (documents >= 0) {
+            DistributionSummary.builder("cms.mongo.command.documents")
+                    .description("Documents returned by MongoDB cursor commands")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(documents);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Tags tags = startedCommands.remove(event.getRequestId());
+        if (tags != null) {
+            recordLatency(tags.and("outcome", "error"), event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private void recordLatency(Tags tags, long elapsedNanos) {
+        Timer.builder("cms.mongo.command")
+                .description("Latency of MongoDB commands")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Most commands name their collection as the value of the command itself; getMore names it separately.
+     */
+    private static String collection(BsonDocument command, String commandName) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : MetricsConfig.NONE;
+    }
+
+    private static int returnedDocuments(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor == null || !cursor.isDocument()) {
+            return -1;
+        }
+        BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                ? cursor.asDocument().get("firstBatch")
+                : cursor.asDocument().get("nextBatch");
+        return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+    }
+}
@@ -1,13 +1,17 @@
 package com.nikhildev.projects.cms.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
@@ -17,7 +21,6 @@ import org.springframework.lang.NonNull;
 public class MultiTenantMongoConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(MultiTenantMongoConfig.class);
-    private static final String DEFAULT_DB = "default";
 
     private final TenantContext tenantContext;
 
@@ -33,15 +36,19 @@ public class MultiTenantMongoConfig {
     }
 
     @Bean
-    public MongoClient mongoClient() {
+    public MongoClient mongoClient(MongoCommandMetrics commandMetrics, SlowQueryRecorder slowQueryRecorder) {
         String connectionString = String.format("mongodb://%s:%d", host, port);
         logger.debug("Connecting to MongoDB at: {}", connectionString);
-        return MongoClients.create(connectionString);
+        return MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(connectionString))
+                .addCommandListener(commandMetrics)
+                .addCommandListener(slowQueryRecorder)
+                .build());
     }
 
     @Bean
-    public MongoDatabaseFactory mongoDatabaseFactory(MongoClient mongoClient) {
-        return new MultiTenantMongoDBFactory(mongoClient, tenantContext);
+    public MongoDatabaseFactory mongoDatabaseFactory(MongoClient mongoClient, TenantDatabases tenantDatabases) {
+        return new MultiTenantMongoDBFactory(mongoClient, tenantContext, tenantDatabases);
     }
 
     @Bean
@@ -50,28 +57,31 @@ public class MultiTenantMongoConfig {
     }
 
     /**
-     * Custom MongoDB factory that selects the database based on the current tenant
+     * Custom MongoDB factory that selects the database based on the current tenant. Database handles are
+     * cached by {@link TenantDatabases}, so this runs on every operation without allocating.
      */
     private static class MultiTenantMongoDBFactory extends SimpleMongoClientDatabaseFactory {
 
         private final TenantContext tenantContext;
+        private final TenantDatabases tenantDatabases;
 
-        public MultiTenantMongoDBFactory(MongoClient mongoClient, TenantContext tenantContext) {
-            super(mongoClient, DEFAULT_DB);
+        public MultiTenantMongoDBFactory(MongoClient mongoClient, TenantContext tenantContext,
+                                         TenantDatabases tenantDatabases) {
+            super(mongoClient, TenantDatabases.DEFAULT_DB);
             this.tenantContext = tenantContext;
+            this.tenantDatabases = tenantDatabases;
+        }
+
+        @Override
+        @NonNull
+        public MongoDatabase getMongoDatabase() throws DataAccessException {
+            return tenantDatabases.database(tenantContext.getTenantId());
         }
 
         @Override
         @NonNull
         protected String getDefaultDatabaseName() {
-            String tenantId = tenantContext.getTenantId();
-            if (tenantId != null) {
-                String dbName = "tenant_" + tenantId;
-                logger.debug("Using tenant database: {}", dbName);
-                return dbName;
-            }
-            logger.debug("No tenant context found, using default database");
-            return DEFAULT_DB;
+            return tenantDatabases.database(tenantContext.getTenantId()).getName();
         }
     }
 }
@@ -0,0 +1,80 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.nikhildev.projects.cms.exceptions.TenantMigrationInProgressException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+/**
+ * Rejects writes to a tenant's contacts and categories while its storage is being migrated, so that nothing
+ * is written to the copy that is about to be replaced. Reads and index operations pass through unchanged.
+ */
+final class ReadOnlyDatabase {
+
+    private static final Set<String> WRITES = Set.of("insertOne", "insertMany", "updateOne", "updateMany",
+            "replaceOne", "deleteOne", "deleteMany", "findOneAndDelete", "findOneAndUpdate", "findOneAndReplace",
+            "bulkWrite", "drop", "renameCollection");
+
+    private ReadOnlyDatabase() {
+    }
+
+    static MongoDatabase wrap(MongoDatabase database, String tenantId, Set<String> collections) {
+        return proxy(MongoDatabase.class, new DatabaseHandler(database, tenantId, collections));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ReadOnlyDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static TenantMigrationInProgressException rejected(String tenantId) {
+        return new TenantMigrationInProgressException("The data of tenant " + tenantId
+                + " is being moved to another storage; writes are rejected until the migration finishes");
+    }
+
+    private record DatabaseHandler(MongoDatabase target, String tenantId, Set<String> collections)
+            implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("drop")) {
+                throw rejected(tenantId);
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof MongoDatabase database) {
+                return proxy(MongoDatabase.class, new DatabaseHandler(database, tenantId, collections));
+            }
+            if (method.getName().equals("getCollection") && collections.contains((String) args[0])) {
+                return proxy(MongoCollection.class, new CollectionHandler((MongoCollection<?>) result, tenantId));
+            }
+            return result;
+        }
+    }
+
+    private record CollectionHandler(MongoCollection<?> target, String tenantId) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (WRITES.contains(method.getName())) {
+                throw rejected(tenantId);
+            }
+            Object result = invokeTarget(target, method, args);
+            return result instanceof MongoCollection<?> collection
+                    ? proxy(MongoCollection.class, new CollectionHandler(collection, tenantId))
+                    : result;
+        }
+    }
+}
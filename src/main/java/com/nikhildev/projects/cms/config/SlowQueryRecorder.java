@@ -0,0 +1,274 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.nikhildev.projects.cms.models.SlowQuery;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the most recent reads on contacts and categories that exceeded the slow query threshold in a
+ * bounded ring buffer. Each entry holds the tenant, the GraphQL operation, the duration and the filter, sort
+ * and paging the repository sent, as seen by the driver. The command is only available when the read starts,
+ * before its duration is known, so the plan-relevant fields of every read are kept as one raw BSON copy of a
+ * few hundred bytes until it completes; the capture sample rate can lower that further. A sample of the slow
+ * queries is explained on a background thread to show whether the plan scanned the collection and how many
+ * documents it examined per document returned; explains are dropped rather than queued without bound when
+ * that thread falls behind. The explain is published to readers of the buffer through a volatile field.
+ */
+@Component
+public class SlowQueryRecorder implements CommandListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryRecorder.class);
+    // Fields of each read command that determine its plan
+    private static final Map<String, List<String>> EXPLAINED_FIELDS = Map.of(
+            "find", List.of("filter", "sort", "projection", "skip", "limit", "hint", "collation"),
+            "aggregate", List.of("pipeline", "hint", "collation"),
+            "count", List.of("query", "skip", "limit", "hint", "collation"),
+            "distinct", List.of("key", "query", "collation"));
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double captureSampleRate;
+    private final double explainSampleRate;
+    private final SlowQuery[] buffer;
+    private final Map<Integer, StartedRead> startedReads = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+    private long recorded;
+
+    @Autowired
+    public SlowQueryRecorder(ObjectProvider<MongoClient> mongoClient,
+                             @Value("${cms.slow-queries.enabled:true}") boolean enabled,
+                             @Value("${cms.slow-queries.threshold:500ms}") Duration threshold,
+                             @Value("${cms.slow-queries.capacity:200}") int capacity,
+                             @Value("${cms.slow-queries.capture-sample-rate:1.0}") double captureSampleRate,
+                             @Value("${cms.slow-queries.explain-sample-rate:1.0}") double explainSampleRate) {
+        this.mongoClient = mongoClient;
+        this.enabled = enabled;
+        this.thresholdNanos = threshold.toNanos();
+        this.captureSampleRate = captureSampleRate;
+        this.explainSampleRate = explainSampleRate;
+        this.buffer = new SlowQuery[Math.max(1, capacity)];
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return the recorded slow queries, newest first, optionally restricted to one tenant
+     */
+    public synchronized List<SlowQuery> getSlowQueries(String tenantId, int limit) {
+        List<SlowQuery> slowQueries = new ArrayList<>();
+        for (long i = recorded - 1; i >= 0 && i >= recorded - buffer.length && slowQueries.size() < limit; i--) {
+            SlowQuery slowQuery = buffer[(int) (i % buffer.length)];
+            if (tenantId == null || tenantId.equals(slowQuery.getTenantId())) {
+                slowQueries.add(slowQuery);
+            }
+        }
+        return slowQueries;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<String> fields = EXPLAINED_FIELDS.get(event.getCommandName());
+        if (fields == null) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue collection = command.get(event.getCommandName());
+        if (collection == null || !collection.isString()
+                || !TenantDatabases.SHARED_COLLECTIONS.contains(collection.asString().getValue())) {
+            return;
+        }
+        BsonDocument read = null;
+        if (ThreadLocalRandom.current().nextDouble() < captureSampleRate) {
+            read = new BsonDocument(event.getCommandName(), collection);
+            for (String field : fields) {
+                BsonValue value = command.get(field);
+                if (value != null) {
+                    read.put(field, value);
+                }
+            }
+            // The driver releases the buffer behind the command once it is sent; encoding the fields into one
+            // byte array copies them without building a tree of values
+            read = new RawBsonDocument(read, new BsonDocumentCodec());
+        }
+        startedReads.put(event.getRequestId(), new StartedRead(collection.asString().getValue(), read,
+                TenantContext.currentTenantId(), GraphQLOperationContext.currentOperation()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedRead read = startedReads.remove(event.getRequestId());
+        if (read != null && event.getElapsedTime(TimeUnit.NANOSECONDS) >= thresholdNanos) {
+            record(read, event.getCommandName(), event.getDatabaseName(), event.getElapsedTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        startedReads.remove(event.getRequestId());
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void record(StartedRead read, String commandName, String database, long durationMillis) {
+        BsonDocument command = read.command();
+        SlowQuery slowQuery = new SlowQuery();
+        slowQuery.setTimestamp(Instant.now());
+        slowQuery.setTenantId(read.tenantId());
+        slowQuery.setOperation(read.operation());
+        slowQuery.setDatabase(database);
+        slowQuery.setCollection(read.collection());
+        slowQuery.setCommand(commandName);
+        if (command != null) {
+            slowQuery.setFilter(json(command.containsKey("filter") ? command.get("filter") : command.get("query")));
+            slowQuery.setSort(json(command.get("sort")));
+            slowQuery.setPipeline(json(command.get("pipeline")));
+            slowQuery.setSkip(intValue(command.get("skip")));
+            slowQuery.setLimit(intValue(command.get("limit")));
+        }
+        slowQuery.setDurationMillis(durationMillis);
+        synchronized (this) {
+            buffer[(int) (recorded++ % buffer.length)] = slowQuery;
+        }
+        logger.warn("[Tenant: {}] Slow {} on {} took {} ms (operation: {}): filter={} sort={} skip={} limit={}",
+                read.tenantId(), commandName, slowQuery.getCollection(), durationMillis, read.operation(),
+                slowQuery.getFilter() != null ? slowQuery.getFilter() : slowQuery.getPipeline(),
+                slowQuery.getSort(), slowQuery.getSkip(), slowQuery.getLimit());
+        if (command != null && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            try {
+                explainExecutor.execute(() -> explain(slowQuery, database, command));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Explain queue full, not explaining slow {} on {}", commandName, slowQuery.getCollection());
+            }
+        }
+    }
+
+    private void explain(SlowQuery slowQuery, String database, BsonDocument command) {
+        BsonDocument explained = new BsonDocument();
+        command.forEach(explained::put);
+        if ("aggregate".equals(slowQuery.getCommand())) {
+            explained.append("cursor", new BsonDocument());
+        }
+        BsonDocument explainCommand = new BsonDocument("explain", explained)
+                .append("verbosity", new BsonString("executionStats"));
+        try {
+            Document result = mongoClient.getObject().getDatabase(database).runCommand(explainCommand);
+            slowQuery.setExplain(summarize(result));
+        } catch (RuntimeException e) {
+            logger.warn("[Tenant: {}] Could not explain slow {} on {}: {}",
+                    slowQuery.getTenantId(), slowQuery.getCommand(), slowQuery.getCollection(), e.getMessage());
+            slowQuery.setExplain(new SlowQuery.ExplainSummary(List.of(), false, null, null, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * Collects the stages of the winning plan and the execution counters, wherever they are nested; the
+     * layout differs between find and aggregate explains and between server versions.
+     */
+    private static SlowQuery.ExplainSummary summarize(Document explain) {
+        List<String> stages = new ArrayList<>();
+        collectStages(findNested(explain, "winningPlan"), stages);
+        Document executionStats = findNested(explain, "executionStats");
+        return new SlowQuery.ExplainSummary(stages, stages.contains("COLLSCAN"),
+                longValue(executionStats, "totalDocsExamined"), longValue(executionStats, "totalKeysExamined"),
+                longValue(executionStats, "nReturned"), null);
+    }
+
+    private static Document findNested(Object value, String key) {
+        if (value instanceof Document document) {
+            if (document.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object nested : document.values()) {
+                Document found = findNested(nested, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object nested : list) {
+                Document found = findNested(nested, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void collectStages(Object value, List<String> stages) {
+        if (value instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(nested -> collectStages(nested, stages));
+        } else if (value instanceof List<?> list) {
+            list.forEach(nested -> collectStages(nested, stages));
+        }
+    }
+
+    private static Long longValue(Document document, String key) {
+        return document != null && document.get(key) instanceof Number number ? number.longValue() : null;
+    }
+
+    private static String json(BsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isArray()) {
+            return value.asArray().stream()
+                    .map(SlowQueryRecorder::json)
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+        return value.isDocument() ? value.asDocument().toJson() : value.toString();
+    }
+
+    private static Integer intValue(BsonValue value) {
+        return value != null && value.isNumber() ? value.asNumber().intValue() : null;
+    }
+
+    /**
+     * @param command the plan-relevant fields of the read, or null when the read was not sampled
+     */
+    private record StartedRead(String collection, BsonDocument command, String tenantId, String operation) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.nikhildev.projects.cms.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -8,6 +9,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class TenantConfig implements WebMvcConfigurer {
 
+    @Bean
+    @ConditionalOnProperty(name = "cms.tenancy.require-tenant", havingValue = "true", matchIfMissing = true)
+    public static TenantRepositoryGuard tenantRepositoryGuard() {
+        return new TenantRepositoryGuard();
+    }
+
     @Bean
     public TenantInterceptor tenantInterceptor() {
         return new TenantInterceptor();
@@ -2,12 +2,30 @@ package com.nikhildev.projects.cms.config;
 
 import org.springframework.stereotype.Component;
 
+import java.util.function.Supplier;
 
+/**
+ * Holds the tenant of the current thread. The value is registered with Micrometer context propagation through
+ * {@link TenantThreadLocalAccessor}, so Spring GraphQL, Reactor and context-aware executors carry it to the
+ * threads that continue the work.
+ */
 @Component
 public class TenantContext {
 
     private static final ThreadLocal<String> currentTenant = ThreadLocal.withInitial(() -> null);
 
+    static String currentTenantId() {
+        return currentTenant.get();
+    }
+
+    static void bind(String tenantId) {
+        if (tenantId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(tenantId);
+        }
+    }
+
     public void setTenantId(String tenantId) {
         currentTenant.set(tenantId);
     }
@@ -19,4 +37,25 @@ public class TenantContext {
     public void clear() {
         currentTenant.remove();
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs the given action with the tenant set on the current thread, restoring the previous
+     * tenant afterwards. Used by work that may execute outside the request thread, e.g. DataLoaders.
+     */
+    public <T> T callAsTenant(String tenantId, Supplier<T> action) {
+        String previousTenantId = currentTenant.get();
+        bind(tenantId);
+        try {
+            return action.get();
+        } finally {
+            bind(previousTenantId);
+        }
+    }
+
+    public void runAsTenant(String tenantId, Runnable action) {
+        callAsTenant(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.nikhildev.projects.cms.models.Tenant;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the database handle of each tenant. Every repository operation resolves its database
+ * through {@link #database(String)}, so a known tenant is served by a single map lookup without building the
+ * database name or a new handle. Handles come from the shared {@link MongoClient} and use its codec registry.
+ * <p>
+ * A tenant with {@link Tenant.Storage#SHARED} storage gets a handle on the shared database that restricts the
+ * collections of {@link TenantScoped} documents to the tenant's own documents, see {@link TenantFilteredDatabase}.
+ * While a tenant's storage is being migrated its handle rejects writes to those collections, see
+ * {@link ReadOnlyDatabase}. The storage of a tenant is read from the tenants collection when its handle is first
+ * needed and again once the handle is older than the configured time to live, which bounds how long another
+ * node keeps using a handle after the tenant changed.
+ */
+@Component
+public class TenantDatabases {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantDatabases.class);
+    public static final String DEFAULT_DB = "default";
+    public static final String TENANT_DB_PREFIX = "tenant_";
+    public static final String TENANT_ID_FIELD = "tenantId";
+    // Collections of the @TenantScoped documents
+    public static final Set<String> SHARED_COLLECTIONS = Set.of("contacts", "categories");
+
+    private final MongoClient mongoClient;
+    private final MongoDatabase defaultDatabase;
+    private final String sharedDatabaseName;
+    private final Map<String, CachedDatabase> databases = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Duration ttl;
+
+    @Autowired
+    public TenantDatabases(MongoClient mongoClient,
+                           @Value("${cms.tenancy.shared.database:shared}") String sharedDatabaseName,
+                           @Value("${cms.tenancy.database-cache.max-size:10000}") int maxSize,
+                           @Value("${cms.tenancy.database-cache.ttl:10s}") Duration ttl) {
+        this.mongoClient = mongoClient;
+        this.defaultDatabase = mongoClient.getDatabase(DEFAULT_DB);
+        this.sharedDatabaseName = sharedDatabaseName;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    public static String databaseName(String tenantId) {
+        return TENANT_DB_PREFIX + tenantId;
+    }
+
+    public String getSharedDatabaseName() {
+        return sharedDatabaseName;
+    }
+
+    /**
+     * @return how long any node may keep using a tenant's database handle after the tenant was changed
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @return the database of the given tenant, or the default database when no tenant is given
+     */
+    public MongoDatabase database(String tenantId) {
+        if (tenantId == null) {
+            return defaultDatabase;
+        }
+        CachedDatabase cached = databases.get(tenantId);
+        return cached != null && System.nanoTime() - cached.loadedAt() < ttl.toNanos() ? cached.database() : load(tenantId);
+    }
+
+    /**
+     * @return an uncached handle on the tenant's data in the given storage, regardless of the storage it uses
+     */
+    public MongoDatabase database(String tenantId, Tenant.Storage storage) {
+        if (storage == Tenant.Storage.SHARED) {
+            return TenantFilteredDatabase.wrap(mongoClient.getDatabase(sharedDatabaseName), tenantId, SHARED_COLLECTIONS);
+        }
+        return mongoClient.getDatabase(databaseName(tenantId));
+    }
+
+    public boolean isShared(String tenantId) {
+        return tenantId != null && sharedDatabaseName.equals(database(tenantId).getName());
+    }
+
+    /**
+     * Removes the tenant's contacts and categories from the given storage: its database is dropped, or its
+     * documents are deleted from the shared collections.
+     */
+    public void dropTenantData(String tenantId, Tenant.Storage storage) {
+        MongoDatabase database = database(tenantId, storage);
+        if (storage == Tenant.Storage.SHARED) {
+            SHARED_COLLECTIONS.forEach(collection -> database.getCollection(collection).deleteMany(new Document()));
+        } else {
+            database.drop();
+        }
+        evict(tenantId);
+    }
+
+    public void evict(String tenantId) {
+        if (tenantId != null && databases.remove(tenantId) != null) {
+            logger.debug("[Tenant: {}] Evicted cached database handle", tenantId);
+        }
+    }
+
+    private MongoDatabase load(String tenantId) {
+        if (!databases.containsKey(tenantId) && databases.size() >= maxSize) {
+            Iterator<String> tenantIds = databases.keySet().iterator();
+            if (tenantIds.hasNext()) {
+                tenantIds.next();
+                tenantIds.remove();
+            }
+        }
+        Object id = ObjectId.isValid(tenantId) ? new ObjectId(tenantId) : tenantId;
+        Document tenant = defaultDatabase.getCollection("tenants")
+                .find(Filters.eq("_id", id))
+                .projection(Projections.include("storage", "migratingStorage"))
+                .first();
+        String storage = tenant != null ? tenant.getString("storage") : null;
+        MongoDatabase database = database(tenantId,
+                storage != null ? Tenant.Storage.valueOf(storage) : Tenant.Storage.DATABASE);
+        if (tenant != null && Boolean.TRUE.equals(tenant.getBoolean("migratingStorage"))) {
+            database = ReadOnlyDatabase.wrap(database, tenantId, SHARED_COLLECTIONS);
+        }
+        if (maxSize > 0) {
+            // Replaces an expired handle; a handle loaded concurrently is as fresh as this one
+            databases.put(tenantId, new CachedDatabase(database, System.nanoTime()));
+        }
+        logger.debug("[Tenant: {}] Using tenant database: {}", tenantId, database.getName());
+        return database;
+    }
+
+    private record CachedDatabase(MongoDatabase database, long loadedAt) {
+    }
+}
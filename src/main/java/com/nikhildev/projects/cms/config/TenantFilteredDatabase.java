@@ -0,0 +1,219 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Restricts a database whose collections are shared by all tenants to the documents of a single tenant. Every
+ * filter sent to a shared collection is combined with the tenant id, aggregations start with a match on it and
+ * inserted or replaced documents are stamped with it, so isolation holds for repositories, templates and bulk
+ * writes alike instead of depending on each query. Operations that would reach other tenants' documents, such
+ * as dropping or watching a shared collection, are rejected. {@code $unionWith} sub-pipelines over a shared
+ * collection start with the same match; other stages that read another collection, like {@code $lookup}, are
+ * not restricted.
+ */
+final class TenantFilteredDatabase {
+
+    private TenantFilteredDatabase() {
+    }
+
+    static MongoDatabase wrap(MongoDatabase database, String tenantId, Set<String> sharedCollections) {
+        return proxy(MongoDatabase.class, new DatabaseHandler(database, sharedCollections,
+                new CollectionRestriction(tenantId, Filters.eq(TenantDatabases.TENANT_ID_FIELD, tenantId),
+                        sharedCollections)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TenantFilteredDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record DatabaseHandler(MongoDatabase target, Set<String> sharedCollections,
+                                   CollectionRestriction restriction) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("drop")) {
+                throw new UnsupportedOperationException("The shared database cannot be dropped for tenant "
+                        + restriction.tenantId());
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof MongoDatabase database) {
+                return proxy(MongoDatabase.class, new DatabaseHandler(database, sharedCollections, restriction));
+            }
+            if (method.getName().equals("getCollection") && sharedCollections.contains((String) args[0])) {
+                return proxy(MongoCollection.class, new CollectionHandler((MongoCollection<?>) result, restriction));
+            }
+            return result;
+        }
+    }
+
+    private record CollectionHandler(MongoCollection<?> target, CollectionRestriction restriction)
+            implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object[] arguments = args != null ? args : new Object[0];
+            // The filter, pipeline or documents follow the optional leading session
+            int i = arguments.length > 0 && arguments[0] instanceof ClientSession ? 1 : 0;
+            switch (method.getName()) {
+                case "find", "countDocuments" -> {
+                    if (i < arguments.length && arguments[i] instanceof Bson filter) {
+                        arguments[i] = restriction.filter(filter);
+                    } else {
+                        return invokeWithFilter(method, arguments, i);
+                    }
+                }
+                case "distinct" -> {
+                    if (arguments[i + 1] instanceof Bson filter) {
+                        arguments[i + 1] = restriction.filter(filter);
+                    } else {
+                        return invokeWithFilter(method, arguments, i + 1);
+                    }
+                }
+                case "estimatedDocumentCount" -> {
+                    // Collection metadata counts every tenant
+                    return target.countDocuments(restriction.tenantFilter());
+                }
+                case "deleteOne", "deleteMany", "updateOne", "updateMany", "findOneAndDelete", "findOneAndUpdate" ->
+                        arguments[i] = restriction.filter((Bson) arguments[i]);
+                case "replaceOne", "findOneAndReplace" -> {
+                    arguments[i] = restriction.filter((Bson) arguments[i]);
+                    restriction.stamp(arguments[i + 1]);
+                }
+                case "insertOne" -> restriction.stamp(arguments[i]);
+                case "insertMany" -> ((List<?>) arguments[i]).forEach(restriction::stamp);
+                case "aggregate" -> arguments[i] = restriction.pipeline((List<?>) arguments[i]);
+                case "bulkWrite" -> arguments[i] = restriction.writes((List<?>) arguments[i]);
+                case "watch", "mapReduce", "drop", "renameCollection" -> throw new UnsupportedOperationException(
+                        method.getName() + " is not supported on a collection shared by all tenants");
+                default -> {
+                }
+            }
+            Object result = invokeTarget(target, method, arguments);
+            return result instanceof MongoCollection<?> collection
+                    ? proxy(MongoCollection.class, new CollectionHandler(collection, restriction))
+                    : result;
+        }
+
+        /**
+         * Calls the overload of the method that takes a filter at the given position, e.g. {@code find(Bson)}
+         * for {@code find()}.
+         */
+        private Object invokeWithFilter(Method method, Object[] arguments, int position) throws Throwable {
+            Class<?>[] parameterTypes = new Class<?>[arguments.length + 1];
+            Object[] filteredArguments = new Object[arguments.length + 1];
+            for (int from = 0, to = 0; to < parameterTypes.length; to++) {
+                if (to == position) {
+                    parameterTypes[to] = Bson.class;
+                    filteredArguments[to] = restriction.tenantFilter();
+                } else {
+                    parameterTypes[to] = method.getParameterTypes()[from];
+                    filteredArguments[to] = arguments[from++];
+                }
+            }
+            Method overload = MongoCollection.class.getMethod(method.getName(), parameterTypes);
+            return invokeTarget(target, overload, filteredArguments);
+        }
+    }
+
+    private record CollectionRestriction(String tenantId, Bson tenantFilter, Set<String> sharedCollections) {
+
+        Bson filter(Bson filter) {
+            return Filters.and(tenantFilter, filter);
+        }
+
+        void stamp(Object document) {
+            if (document instanceof Document bsonDocument) {
+                bsonDocument.put(TenantDatabases.TENANT_ID_FIELD, tenantId);
+            } else if (document instanceof BsonDocument bsonDocument) {
+                bsonDocument.put(TenantDatabases.TENANT_ID_FIELD, new BsonString(tenantId));
+            } else {
+                throw new IllegalArgumentException("Cannot assign a tenant to a document of type "
+                        + document.getClass().getName());
+            }
+        }
+
+        List<Bson> pipeline(List<?> stages) {
+            List<Bson> pipeline = new ArrayList<>(stages.size() + 1);
+            pipeline.add(Aggregates.match(tenantFilter));
+            stages.forEach(stage -> pipeline.add(unionWith((Bson) stage)));
+            return pipeline;
+        }
+
+        private Bson unionWith(Bson stage) {
+            if (!(stage instanceof Document document) || !document.containsKey("$unionWith")) {
+                return stage;
+            }
+            Object union = document.get("$unionWith");
+            String collection = union instanceof Document options ? options.getString("coll") : (String) union;
+            if (!sharedCollections.contains(collection)) {
+                return stage;
+            }
+            List<?> stages = union instanceof Document options && options.get("pipeline") instanceof List<?> list
+                    ? list : List.of();
+            return new Document("$unionWith", new Document("coll", collection).append("pipeline", pipeline(stages)));
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        List<WriteModel> writes(List<?> models) {
+            List<WriteModel> writes = new ArrayList<>(models.size());
+            for (Object model : models) {
+                if (model instanceof InsertOneModel insert) {
+                    stamp(insert.getDocument());
+                    writes.add(insert);
+                } else if (model instanceof ReplaceOneModel replace) {
+                    stamp(replace.getReplacement());
+                    writes.add(new ReplaceOneModel(filter(replace.getFilter()), replace.getReplacement(),
+                            replace.getReplaceOptions()));
+                } else if (model instanceof UpdateOneModel update) {
+                    writes.add(update.getUpdate() != null
+                            ? new UpdateOneModel(filter(update.getFilter()), update.getUpdate(), update.getOptions())
+                            : new UpdateOneModel(filter(update.getFilter()), update.getUpdatePipeline(), update.getOptions()));
+                } else if (model instanceof UpdateManyModel update) {
+                    writes.add(update.getUpdate() != null
+                            ? new UpdateManyModel(filter(update.getFilter()), update.getUpdate(), update.getOptions())
+                            : new UpdateManyModel(filter(update.getFilter()), update.getUpdatePipeline(), update.getOptions()));
+                } else if (model instanceof DeleteOneModel delete) {
+                    writes.add(new DeleteOneModel(filter(delete.getFilter()), delete.getOptions()));
+                } else if (model instanceof DeleteManyModel delete) {
+                    writes.add(new DeleteManyModel(filter(delete.getFilter()), delete.getOptions()));
+                } else {
+                    throw new IllegalArgumentException("Unsupported write on a shared collection: "
+                            + model.getClass().getName());
+                }
+            }
+            return writes;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nikhildev.projects.cms.config;
+
+import com.nikhildev.projects.cms.models.Tenant;
+import com.nikhildev.projects.cms.repositories.TenantRepository;
+import com.nikhildev.projects.cms.services.TenantIndexManager;
+import com.nikhildev.projects.cms.services.TenantIndexManager.IndexReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verifies the declared indexes of every tenant database and of the shared collections at startup, in
+ * parallel, and reports drift.
+ */
+@Component
+public class TenantIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantIndexInitializer.class);
+
+    private final TenantRepository tenantRepository;
+    private final TenantIndexManager tenantIndexManager;
+    private final boolean verifyOnStartup;
+    private final int parallelism;
+
+    @Autowired
+    public TenantIndexInitializer(TenantRepository tenantRepository,
+                                  TenantIndexManager tenantIndexManager,
+                                  @Value("${cms.indexes.verify-on-startup:true}") boolean verifyOnStartup,
+                                  @Value("${cms.indexes.parallelism:4}") int parallelism) {
+        this.tenantRepository = tenantRepository;
+        this.tenantIndexManager = tenantIndexManager;
+        this.verifyOnStartup = verifyOnStartup;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!verifyOnStartup) {
+            return;
+        }
+        tenantIndexManager.ensureDefaultIndexes();
+        List<Tenant> tenants = tenantRepository.findAll().stream()
+                .filter(tenant -> !"ADMIN".equalsIgnoreCase(tenant.getRole()))
+                .toList();
+        boolean sharedStorageUsed = tenants.stream().anyMatch(tenant -> tenant.getStorage() == Tenant.Storage.SHARED);
+        // Tenants with shared storage have no database of their own; the shared collections are verified once
+        tenants = tenants.stream().filter(tenant -> tenant.getStorage() != Tenant.Storage.SHARED).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<CompletableFuture<IndexReport>> reports = new ArrayList<>();
+            if (sharedStorageUsed) {
+                reports.add(CompletableFuture.supplyAsync(tenantIndexManager::ensureSharedIndexes, executor));
+            }
+            for (Tenant tenant : tenants) {
+                reports.add(CompletableFuture.supplyAsync(
+                        () -> tenantIndexManager.ensureTenantIndexes(tenant.getId()), executor));
+            }
+            long drifted = 0;
+            for (CompletableFuture<IndexReport> report : reports) {
+                try {
+                    if (report.join().hasDrift()) {
+                        drifted++;
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Index verification failed for a tenant database", e);
+                    drifted++;
+                }
+            }
+            logger.info("Verified indexes of {} tenant databases, {} with drift", tenants.size(), drifted);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nikhildev.projects.cms.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Fails fast when a repository of a {@link TenantScoped} document is used without a tenant on the current
+ * thread. Without a tenant the database factory falls back to the default database, so work that lost its
+ * tenant on a thread hop would otherwise silently read and write the wrong data.
+ */
+public class TenantRepositoryGuard implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        if (repositoryInformation.getDomainType().isAnnotationPresent(TenantScoped.class)) {
+                            proxyFactory.addAdvice(new RequireTenantInterceptor(
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()));
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    private record RequireTenantInterceptor(String repositoryName) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (TenantContext.currentTenantId() == null && !ReflectionUtils.isObjectMethod(invocation.getMethod())) {
+                throw new IllegalStateException("No tenant bound to the current thread for " + repositoryName + "."
+                        + invocation.getMethod().getName() + "; tenant data must not be accessed in the default database");
+            }
+            return invocation.proceed();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.nikhildev.projects.cms.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks documents that live in the tenant databases. Repositories of these documents refuse to run without a
+ * tenant bound to the current thread, see {@link TenantRepositoryGuard}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TenantScoped {
+}
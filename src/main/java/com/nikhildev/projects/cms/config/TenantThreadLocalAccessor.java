@@ -0,0 +1,33 @@
+package com.nikhildev.projects.cms.config;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Exposes the {@link TenantContext} value to Micrometer context propagation. Registered through
+ * META-INF/services, so every {@code ContextSnapshot} captures the tenant and restores it around the work
+ * it wraps: Spring GraphQL async data fetchers and DataLoaders, Reactor operators and wrapped executors.
+ */
+public class TenantThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    public static final String KEY = "cms.tenantId";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return TenantContext.currentTenantId();
+    }
+
+    @Override
+    public void setValue(String tenantId) {
+        TenantContext.bind(tenantId);
+    }
+
+    @Override
+    public void setValue() {
+        TenantContext.bind(null);
+    }
+}
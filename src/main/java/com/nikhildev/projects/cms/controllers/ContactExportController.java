@@ -0,0 +1,58 @@
+package com.nikhildev.projects.cms.controllers;
+
+import com.nikhildev.projects.cms.services.ContactExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming contact export. The export is written on the request thread, which keeps the tenant context,
+ * directly to the response; without a content length the response goes out with chunked transfer encoding.
+ * Clients sending "Accept-Encoding: gzip" receive a gzip-compressed stream.
+ */
+@RestController
+@RequestMapping("/export/contacts")
+@PreAuthorize("hasRole('USER')")
+public class ContactExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportController.class);
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ContactExportService contactExportService;
+
+    @Autowired
+    public ContactExportController(ContactExportService contactExportService) {
+        this.contactExportService = contactExportService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportContacts(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        logger.info("REST: Exporting contacts{}", gzip ? " (gzip)" : "");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (OutputStream output = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE)) {
+                contactExportService.exportContacts(output);
+            }
+        } else {
+            contactExportService.exportContacts(response.getOutputStream());
+        }
+    }
+}
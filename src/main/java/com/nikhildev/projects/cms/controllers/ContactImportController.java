@@ -0,0 +1,80 @@
+package com.nikhildev.projects.cms.controllers;
+
+import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
+import com.nikhildev.projects.cms.imports.ImportFormat;
+import com.nikhildev.projects.cms.models.ImportReport;
+import com.nikhildev.projects.cms.services.ContactImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming contact import. The request body is read directly from the servlet input stream rather than
+ * bound with @RequestBody, so the file is never buffered as a whole. The import completes before the response
+ * is sent, so the upload is throttled by the database writes.
+ */
+@RestController
+@RequestMapping("/import/contacts")
+@PreAuthorize("hasRole('USER')")
+public class ContactImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportController.class);
+
+    private final ContactImportService contactImportService;
+
+    @Autowired
+    public ContactImportController(ContactImportService contactImportService) {
+        this.contactImportService = contactImportService;
+    }
+
+    @PostMapping(consumes = {ImportFormat.NDJSON_VALUE, ImportFormat.CSV_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport importContacts(HttpServletRequest request,
+                                       @RequestParam(required = false) String importId) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        logger.info("REST: Importing {} contacts", format);
+        return contactImportService.importContacts(request.getInputStream(), charset, format, importId);
+    }
+
+    @GetMapping(value = "/{importId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport getImport(@PathVariable String importId) {
+        return contactImportService.getImport(importId);
+    }
+
+    @GetMapping(value = "/{importId}/rejected", produces = ImportFormat.NDJSON_VALUE)
+    public Resource getRejectedRows(@PathVariable String importId) {
+        return new FileSystemResource(contactImportService.getRejectedRows(importId));
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(ResourceNotFoundException exception) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException exception) {
+        logger.error("Invalid import request: {}", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package com.nikhildev.projects.cms.exceptions;
+
+public class TenantMigrationInProgressException extends RuntimeException {
+    public TenantMigrationInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nikhildev.projects.cms.imports;
+
+import com.nikhildev.projects.cms.models.Contact;
+
+import java.util.List;
+
+/**
+ * One parsed record of an import file. Rows that could not be parsed carry an error instead of a contact;
+ * the raw text is kept so that rejected rows can be written back out unchanged.
+ */
+public record ContactRow(long line, String raw, Contact contact, List<String> categoryNames, String error) {
+
+    public static ContactRow parsed(long line, String raw, Contact contact, List<String> categoryNames) {
+        return new ContactRow(line, raw, contact, categoryNames, null);
+    }
+
+    public static ContactRow rejected(long line, String raw, String error) {
+        return new ContactRow(line, raw, null, List.of(), error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.nikhildev.projects.cms.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time, so that only the current record is held in memory.
+ */
+public interface ContactRowReader extends Closeable {
+
+    /**
+     * @return the next row, or null at the end of the input
+     */
+    ContactRow next() throws IOException;
+}
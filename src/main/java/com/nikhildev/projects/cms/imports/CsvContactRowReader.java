@@ -0,0 +1,144 @@
+package com.nikhildev.projects.cms.imports;
+
+import com.nikhildev.projects.cms.models.Contact;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV with a header row naming the columns contactName, phone, email, categoryIds and
+ * categoryNames (or categoryName). Category columns hold several values separated by ';'. Quoted fields may
+ * contain separators, doubled quotes and line breaks.
+ */
+public class CsvContactRowReader implements ContactRowReader {
+
+    private static final String VALUE_SEPARATOR = ";";
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line;
+
+    public CsvContactRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        StringBuilder raw = new StringBuilder();
+        List<String> header = readRecord(raw);
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.put(column.equals("categoryname") ? "categorynames" : column, i);
+        }
+        if (!columns.containsKey("contactname") || !columns.containsKey("phone")) {
+            throw new IllegalArgumentException("CSV header must contain the columns contactName and phone");
+        }
+    }
+
+    @Override
+    public ContactRow next() throws IOException {
+        StringBuilder raw = new StringBuilder();
+        List<String> fields;
+        long startLine;
+        do {
+            startLine = line + 1;
+            raw.setLength(0);
+            fields = readRecord(raw);
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        if (fields.size() > columns.size() && !columns.isEmpty()) {
+            return ContactRow.rejected(startLine, raw.toString(),
+                    "Expected " + columns.size() + " columns but found " + fields.size());
+        }
+        Contact contact = new Contact();
+        contact.setContactName(field(fields, "contactname"));
+        contact.setPhone(field(fields, "phone"));
+        contact.setEmail(field(fields, "email"));
+        contact.setCategoryIds(values(fields, "categoryids"));
+        return ContactRow.parsed(startLine, raw.toString(), contact, values(fields, "categorynames"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> values(List<String> fields, String column) {
+        String value = field(fields, column);
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            Arrays.stream(value.split(VALUE_SEPARATOR))
+                    .map(String::trim)
+                    .filter(element -> !element.isEmpty())
+                    .forEach(values::add);
+        }
+        return values;
+    }
+
+    /**
+     * Reads one record, continuing over line breaks inside quoted fields.
+     *
+     * @return the fields of the record, or null at the end of the input
+     */
+    private List<String> readRecord(StringBuilder raw) throws IOException {
+        String text = reader.readLine();
+        if (text == null) {
+            return null;
+        }
+        line++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            raw.append(text);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            text = reader.readLine();
+            if (text == null) {
+                break;
+            }
+            line++;
+            raw.append('\n');
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
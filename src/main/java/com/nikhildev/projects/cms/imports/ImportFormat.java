@@ -0,0 +1,29 @@
+package com.nikhildev.projects.cms.imports;
+
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = MediaType.APPLICATION_NDJSON_VALUE;
+    public static final String CSV_VALUE = "text/csv";
+
+    public static ImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            return CSV;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+    public ContactRowReader open(BufferedReader reader) throws IOException {
+        return this == CSV ? new CsvContactRowReader(reader) : new NdjsonContactRowReader(reader);
+    }
+}
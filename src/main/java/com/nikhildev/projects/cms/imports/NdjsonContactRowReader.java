@@ -0,0 +1,78 @@
+package com.nikhildev.projects.cms.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikhildev.projects.cms.models.Contact;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads one JSON object per line with the fields contactName, phone, email, categoryIds and categoryNames.
+ * The category fields accept either an array or a single string.
+ */
+public class NdjsonContactRowReader implements ContactRowReader {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private long line;
+
+    public NdjsonContactRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ContactRow next() throws IOException {
+        String raw;
+        do {
+            raw = reader.readLine();
+            if (raw == null) {
+                return null;
+            }
+            line++;
+        } while (raw.isBlank());
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(raw);
+        } catch (JsonProcessingException e) {
+            return ContactRow.rejected(line, raw, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ContactRow.rejected(line, raw, "Expected a JSON object");
+        }
+        Contact contact = new Contact();
+        contact.setContactName(text(node, "contactName"));
+        contact.setPhone(text(node, "phone"));
+        contact.setEmail(text(node, "email"));
+        contact.setCategoryIds(values(node, "categoryIds"));
+        return ContactRow.parsed(line, raw, contact, values(node, "categoryNames"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> values(JsonNode node, String field) {
+        List<String> values = new ArrayList<>();
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return values;
+        }
+        if (value.isArray()) {
+            value.forEach(element -> values.add(element.asText()));
+        } else {
+            values.add(value.asText());
+        }
+        return values;
+    }
+}
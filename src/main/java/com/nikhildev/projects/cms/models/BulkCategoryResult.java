@@ -0,0 +1,17 @@
+package com.nikhildev.projects.cms.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCategoryResult {
+    private String categoryId;
+    private int requested;
+    private long modified;
+    private List<String> missingContactIds;
+}
@@ -1,12 +1,16 @@
 package com.nikhildev.projects.cms.models;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nikhildev.projects.cms.config.TenantScoped;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.search.SearchNormalizer;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +20,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@TenantScoped
 @Document(collection = "contacts")
 public class Contact {
 
@@ -27,15 +32,30 @@ public class Contact {
     private String contactName;
 
     @NotBlank(message = "Phone number is required")
-    @Indexed(unique = true)
     private String phone;
 
+    @Indexed(unique = true, sparse = true)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String phoneDigits;
+
+    @Indexed
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String phoneDigitsReversed;
+
     @Email(message = "Invalid email format")
     private String email;
 
     @Indexed
     private List<String> categoryIds = new ArrayList<>();
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @Indexed
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<String> nameTokens = new ArrayList<>();
+
     public void updateFrom(Contact source) {
         if (source.getContactName() != null) {
             this.contactName = source.getContactName();
@@ -50,4 +70,20 @@ public class Contact {
             this.categoryIds = source.getCategoryIds();
         }
     }
+
+    /**
+     * Stores the canonical phone digits together with their reversal, which backs suffix searches. A phone
+     * without digits leaves both absent, so legacy contacts like that do not collide on the unique index.
+     */
+    public void applyPhoneDigits(String canonicalDigits) {
+        this.phoneDigits = canonicalDigits == null || canonicalDigits.isEmpty() ? null : canonicalDigits;
+        this.phoneDigitsReversed = PhoneNormalizer.reverse(this.phoneDigits);
+    }
+
+    /**
+     * Recomputes the name tokens used by the indexed name search.
+     */
+    public void refreshSearchFields() {
+        this.nameTokens = SearchNormalizer.tokenize(contactName);
+    }
 }
\ No newline at end of file
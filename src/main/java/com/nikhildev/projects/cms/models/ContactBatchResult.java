@@ -0,0 +1,43 @@
+package com.nikhildev.projects.cms.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactBatchResult {
+    private List<Item> results;
+    private int succeeded;
+    private int failed;
+
+    /**
+     * Builds the per-item results of a batch; an item succeeded when it has no error.
+     */
+    public static ContactBatchResult of(List<Contact> contacts, String[] errors) {
+        List<Item> results = new ArrayList<>(contacts.size());
+        int failed = 0;
+        for (int i = 0; i < contacts.size(); i++) {
+            if (errors[i] != null) {
+                results.add(new Item(i, null, errors[i]));
+                failed++;
+            } else {
+                results.add(new Item(i, contacts.get(i), null));
+            }
+        }
+        return new ContactBatchResult(results, contacts.size() - failed, failed);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private Contact contact;
+        private String error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.nikhildev.projects.cms.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteCategoryResult {
+    private String categoryId;
+    private long modified;
+}
@@ -0,0 +1,39 @@
+package com.nikhildev.projects.cms.models;
+
+import com.nikhildev.projects.cms.imports.ImportFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a contact import. The importing request updates the counters as it goes and returns the report
+ * once the upload has been processed.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String importId;
+    private ImportFormat format;
+    private volatile Status status = Status.RUNNING;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile boolean rejectedRowsAvailable;
+    private Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public ImportReport(String importId, ImportFormat format) {
+        this.importId = importId;
+        this.format = format;
+        this.startedAt = Instant.now();
+    }
+}
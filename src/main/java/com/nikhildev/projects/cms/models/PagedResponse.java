@@ -4,8 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @Data
 @NoArgsConstructor
@@ -34,4 +38,51 @@ public class PagedResponse<T> {
         response.setEmpty(page.isEmpty());
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds a page from a slice (fetched with pageSize + 1). The total count query only runs when
+     * {@code countTotal} is set and the total cannot be derived from the slice itself; otherwise
+     * totalElements and totalPages are reported as -1.
+     */
+    public static <T> PagedResponse<T> fromSlice(Slice<T> slice, boolean countTotal, LongSupplier totalQuery) {
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(slice.getContent());
+        response.setPageSize(slice.getSize());
+        response.setNumber(slice.getNumber());
+        response.setNumberOfElements(slice.getNumberOfElements());
+        response.setFirst(slice.isFirst());
+        response.setLast(slice.isLast());
+        response.setEmpty(slice.isEmpty());
+        if (!countTotal) {
+            response.setTotalElements(-1);
+            response.setTotalPages(-1);
+            return response;
+        }
+        long total;
+        if (isTotalKnown(slice)) {
+            total = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        } else {
+            total = totalQuery.getAsLong();
+        }
+        response.setTotalElements(total);
+        response.setTotalPages(slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total / slice.getSize()));
+        return response;
+    }
+
+    /**
+     * Builds a page by slicing an already filtered and sorted in-memory list.
+     */
+    public static <T> PagedResponse<T> fromList(List<T> items, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return fromPage(new PageImpl<>(items.subList(from, to), pageable, items.size()));
+    }
+
+    /**
+     * @return whether the total follows from the slice itself, which holds when it is the last slice and does
+     * not lie past the end
+     */
+    public static boolean isTotalKnown(Slice<?> slice) {
+        return !slice.hasNext() && (slice.hasContent() || slice.getNumber() == 0);
+    }
+}
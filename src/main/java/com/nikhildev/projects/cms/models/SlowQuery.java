@@ -0,0 +1,42 @@
+package com.nikhildev.projects.cms.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A read on tenant data that took longer than the slow query threshold, with the filter, sort and paging the
+ * repository sent to MongoDB. The explain summary is attached later, once the sampled explain has run.
+ */
+@Data
+@NoArgsConstructor
+public class SlowQuery {
+    private Instant timestamp;
+    private String tenantId;
+    private String operation;
+    private String database;
+    private String collection;
+    private String command;
+    private String filter;
+    private String sort;
+    private String pipeline;
+    private Integer skip;
+    private Integer limit;
+    private long durationMillis;
+    private volatile ExplainSummary explain;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExplainSummary {
+        private List<String> stages;
+        private boolean collectionScan;
+        private Long docsExamined;
+        private Long keysExamined;
+        private Long returned;
+        private String error;
+    }
+}
@@ -20,6 +20,27 @@ import java.util.Collections;
 @Document(collection = "tenants")
 public class Tenant implements UserDetails {
 
+    /**
+     * Where the tenant's contacts and categories are stored: in a database of its own, or in collections
+     * shared with other tenants. Tenants stored before this field existed have their own database.
+     */
+    public enum Storage {
+        DATABASE,
+        SHARED
+    }
+
+    /**
+     * Per-tenant overrides of the GraphQL query limits; a null value keeps the configured default.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueryLimits {
+        private Integer maxCost;
+        private Integer maxDepth;
+        private Integer maxPageSize;
+    }
+
     @Id
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String id;
@@ -35,6 +56,14 @@ public class Tenant implements UserDetails {
 
     private String role;
 
+    private Storage storage;
+
+    // Set while the tenant's data is copied to another storage; its contacts and categories are read-only then
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Boolean migratingStorage;
+
+    private QueryLimits queryLimits;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
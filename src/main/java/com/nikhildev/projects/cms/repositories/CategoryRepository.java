@@ -1,22 +1,41 @@
 package com.nikhildev.projects.cms.repositories;
 
 import com.nikhildev.projects.cms.models.Category;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface CategoryRepository extends MongoRepository<Category, String> {
+public interface CategoryRepository extends MongoRepository<Category, String>, CategoryRepositoryCustom {
 
     List<Category> findByCategoryNameContainingIgnoreCase(String categoryName);
 
-    Page<Category> findByIdIn(List<String> categoryIds, Pageable pageable);
+    long countByCategoryNameContainingIgnoreCase(String categoryName);
 
-    Page<Category> findByIdInAndCategoryNameContainingIgnoreCase(List<String> categoryIds, String categoryName, Pageable pageable);
+    Slice<Category> findByIdIn(List<String> categoryIds, Pageable pageable);
+
+    long countByIdIn(List<String> categoryIds);
+
+    Slice<Category> findByIdInAndCategoryNameContainingIgnoreCase(List<String> categoryIds, String categoryName, Pageable pageable);
+
+    long countByIdInAndCategoryNameContainingIgnoreCase(List<String> categoryIds, String categoryName);
+
+    List<Category> findByIdIn(Collection<String> categoryIds, Sort sort);
+
+    List<Category> findByIdInAndCategoryNameContainingIgnoreCase(Collection<String> categoryIds, String categoryName, Sort sort);
 
     boolean existsByCategoryNameIgnoreCase(String categoryName);
+
+    Window<Category> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Category> findByCategoryNameContainingIgnoreCase(String categoryName, ScrollPosition position, Sort sort, Limit limit);
 }
 
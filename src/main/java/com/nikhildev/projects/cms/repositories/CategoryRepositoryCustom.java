@@ -0,0 +1,24 @@
+package com.nikhildev.projects.cms.repositories;
+
+import com.nikhildev.projects.cms.models.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Reads one slice of the matching categories, loading only the given fields besides the id.
+     *
+     * @param fields the document fields to load, or null to load whole documents
+     */
+    Slice<Category> findSlice(Criteria criteria, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Returns which of the given ids belong to existing categories, with a single query that loads only ids.
+     */
+    Set<String> findExistingIds(Collection<String> categoryIds);
+}
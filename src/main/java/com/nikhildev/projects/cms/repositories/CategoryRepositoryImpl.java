@@ -0,0 +1,37 @@
+package com.nikhildev.projects.cms.repositories;
+
+import com.nikhildev.projects.cms.models.Category;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public CategoryRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Slice<Category> findSlice(Criteria criteria, Pageable pageable, Collection<String> fields) {
+        return ProjectedSlices.find(mongoTemplate, criteria, pageable, fields, Category.class);
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> categoryIds) {
+        Query query = Query.query(Criteria.where("_id").in(categoryIds));
+        query.fields().include("_id");
+        Set<String> existingIds = new HashSet<>();
+        mongoTemplate.find(query, Category.class).forEach(category -> existingIds.add(category.getId()));
+        return existingIds;
+    }
+}
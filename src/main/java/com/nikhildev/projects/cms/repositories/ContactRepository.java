@@ -1,32 +1,61 @@
 package com.nikhildev.projects.cms.repositories;
 
 import com.nikhildev.projects.cms.models.Contact;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Repository
-public interface ContactRepository extends MongoRepository<Contact, String> {
+public interface ContactRepository extends MongoRepository<Contact, String>, ContactRepositoryCustom {
 
-    Optional<Contact> findByPhone(String phone);
+    Optional<Contact> findByPhoneDigits(String phoneDigits);
 
-    Page<Contact> findByContactNameContainingIgnoreCase(String contactName, Pageable pageable);
+    @Query(value = "{'phoneDigits': {$in: ?0}}", fields = "{'phoneDigits': 1}")
+    List<Contact> findPhoneDigitsIn(Collection<String> phoneDigits);
 
-    Page<Contact> findByPhoneContaining(String phone, Pageable pageable);
+    @Query(value = "{'nameTokens': {$all: ?0}}", count = true)
+    long countByNameTokenPrefixes(List<Pattern> tokenPrefixes);
 
-    Page<Contact> findByCategoryIdsIn(String categoryId, Pageable pageable);
+    @Query(value = "{'phoneDigitsReversed': ?0}", count = true)
+    long countByPhoneSuffix(Pattern reversedDigitsPrefix);
 
-    Page<Contact> findByCategoryIdsInAndContactNameContainingIgnoreCase(String categoryId, String contactName, Pageable pageable);
+    Slice<Contact> findByCategoryIdsIn(String categoryId, Pageable pageable);
 
-    Page<Contact> findByCategoryIdsInAndPhoneContaining(String categoryId, String phone, Pageable pageable);
+    long countByCategoryIdsIn(String categoryId);
 
-    @Query("{'categoryIds': {$in: ?0}}")
-    Page<Contact> findByCategoryIdsInList(List<String> categoryIds, Pageable pageable);
+    @Query("{'categoryIds': ?0, 'nameTokens': {$all: ?1}}")
+    Slice<Contact> findByCategoryIdAndNameTokenPrefixes(String categoryId, List<Pattern> tokenPrefixes, Pageable pageable);
 
-    List<Contact> findByCategoryIdsIn(String categoryId);
+    @Query(value = "{'categoryIds': ?0, 'nameTokens': {$all: ?1}}", count = true)
+    long countByCategoryIdAndNameTokenPrefixes(String categoryId, List<Pattern> tokenPrefixes);
+
+    @Query("{'categoryIds': ?0, 'phoneDigitsReversed': ?1}")
+    Slice<Contact> findByCategoryIdAndPhoneSuffix(String categoryId, Pattern reversedDigitsPrefix, Pageable pageable);
+
+    @Query(value = "{'categoryIds': ?0, 'phoneDigitsReversed': ?1}", count = true)
+    long countByCategoryIdAndPhoneSuffix(String categoryId, Pattern reversedDigitsPrefix);
+
+    @Query(value = "{'categoryIds': {$in: ?0}}", count = true)
+    long countByCategoryIdsInList(List<String> categoryIds);
+
+    Window<Contact> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("{'nameTokens': {$all: ?0}}")
+    Window<Contact> findByNameTokenPrefixes(List<Pattern> tokenPrefixes, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("{'phoneDigitsReversed': ?0}")
+    Window<Contact> findByPhoneSuffix(Pattern reversedDigitsPrefix, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Contact> findByCategoryIdsIn(Collection<String> categoryIds, ScrollPosition position, Sort sort, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.nikhildev.projects.cms.repositories;
+
+import com.nikhildev.projects.cms.models.Contact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface ContactRepositoryCustom {
+
+    /**
+     * Reads one slice of contacts for each of the given categories, optionally filtered by name prefixes or
+     * phone suffix, in a single round trip. Each category keeps its own limited index walk.
+     */
+    Map<String, Slice<Contact>> findSlicesByCategoryIds(Collection<String> categoryIds, String contactName,
+                                                        String phone, Pageable pageable);
+
+    /**
+     * Counts the contacts of each category that match the filters of {@link #findSlicesByCategoryIds} with a
+     * single aggregation. Categories without matching contacts are absent from the result.
+     */
+    Map<String, Long> countByCategoryIds(Collection<String> categoryIds, String contactName, String phone);
+
+    /**
+     * Reads one slice of the matching contacts, loading only the given fields besides the id.
+     *
+     * @param fields the document fields to load, or null to load whole documents
+     */
+    Slice<Contact> findSlice(Criteria criteria, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Atomically adds the category to the contact with $addToSet, unless it is already assigned.
+     *
+     * @return the updated contact, or null when the contact does not exist or already has the category
+     */
+    Contact addCategoryIfAbsent(String contactId, String categoryId);
+
+    /**
+     * Atomically pulls the category from the contact.
+     *
+     * @return false when the contact does not exist or does not hold the category
+     */
+    boolean removeCategory(String contactId, String categoryId);
+
+    /**
+     * Pulls the category from every contact holding it with a single server-side updateMany.
+     *
+     * @return the number of modified contacts
+     */
+    long removeCategoryFromAllContacts(String categoryId);
+
+    /**
+     * Returns the collection size from its metadata instead of counting documents.
+     */
+    long estimatedCount();
+
+    /**
+     * Iterates all contacts in id order over a single cursor. The stream must be closed to release the cursor.
+     */
+    Stream<Contact> streamAll(int cursorBatchSize);
+
+    /**
+     * Inserts the contacts with one unordered bulk write; every contact must carry its id and initial version.
+     *
+     * @return the contacts that could not be written, by their position in the given list
+     */
+    List<BulkFailure> insertUnordered(List<Contact> contacts);
+
+    /**
+     * Writes the contacts with one unordered bulk write of version-checked updates and bumps the version of every
+     * contact that was written. A failed update does not stop the remaining ones; the updates that matched are
+     * found with one query for a token the bulk write stamps on them.
+     *
+     * @return the contacts that could not be written, by their position in the given list
+     */
+    List<BulkFailure> updateUnordered(List<Contact> contacts);
+
+    /**
+     * Returns which of the given ids belong to existing contacts, without loading the contacts.
+     */
+    Set<String> findExistingIds(Collection<String> contactIds);
+
+    /**
+     * Adds the category to all given contacts with a single updateMany.
+     *
+     * @return the number of contacts that did not hold the category yet
+     */
+    long addCategoryToContacts(Collection<String> contactIds, String categoryId);
+
+    /**
+     * Pulls the category from all given contacts with a single updateMany.
+     *
+     * @return the number of contacts that held the category
+     */
+    long removeCategoryFromContacts(Collection<String> contactIds, String categoryId);
+
+    record BulkFailure(int index, Reason reason, String message) {
+
+        public enum Reason {
+            DUPLICATE_KEY,
+            VERSION_CONFLICT,
+            WRITE_ERROR
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.nikhildev.projects.cms.repositories;
+
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.search.SearchNormalizer;
+import com.mongodb.ErrorCategory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class ContactRepositoryImpl implements ContactRepositoryCustom {
+
+    // Tags each contact of a batched category read with the category whose slice it belongs to
+    private static final String SLICE_KEY = "_sliceCategoryId";
+    // Token of the last batch update that wrote the contact
+    private static final String LAST_WRITE = "lastWrite";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean unionWith;
+
+    @Autowired
+    public ContactRepositoryImpl(MongoTemplate mongoTemplate,
+                                 @Value("${cms.category-contacts.union-with:true}") boolean unionWith) {
+        this.mongoTemplate = mongoTemplate;
+        this.unionWith = unionWith;
+    }
+
+    @Override
+    public Map<String, Slice<Contact>> findSlicesByCategoryIds(Collection<String> categoryIds, String contactName,
+                                                               String phone, Pageable pageable) {
+        if (!unionWith || categoryIds.size() == 1) {
+            Map<String, Slice<Contact>> slices = new HashMap<>();
+            for (String categoryId : categoryIds) {
+                slices.put(categoryId, ProjectedSlices.find(mongoTemplate,
+                        categoryCriteria(categoryId, contactName, phone), pageable, null, Contact.class));
+            }
+            return slices;
+        }
+        // Each category gets its own {$match, $sort, $skip, $limit} sub-pipeline, so it walks the
+        // {categoryIds, contactName} index for just the requested page, and $unionWith sends them all at once
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Contact.class);
+        Document sort = queryMapper.getMappedSort(toDocument(pageable.getSort()), entity);
+        String collectionName = mongoTemplate.getCollectionName(Contact.class);
+        List<Document> pipeline = new ArrayList<>();
+        for (String categoryId : categoryIds) {
+            List<Document> slicePipeline = slicePipeline(queryMapper.getMappedObject(
+                    categoryCriteria(categoryId, contactName, phone).getCriteriaObject(), entity), sort, pageable);
+            slicePipeline.add(new Document("$addFields", new Document(SLICE_KEY, categoryId)));
+            if (pipeline.isEmpty()) {
+                pipeline.addAll(slicePipeline);
+            } else {
+                pipeline.add(new Document("$unionWith",
+                        new Document("coll", collectionName).append("pipeline", slicePipeline)));
+            }
+        }
+        // The union does not promise to keep each sub-pipeline's order
+        Document sliceOrder = new Document(SLICE_KEY, 1);
+        sliceOrder.putAll(sort);
+        pipeline.add(new Document("$sort", sliceOrder));
+
+        List<Document> documents = mongoTemplate.execute(Contact.class,
+                collection -> collection.aggregate(pipeline).into(new ArrayList<>()));
+        Map<String, List<Contact>> contactsByCategory = new HashMap<>();
+        for (Document document : documents) {
+            contactsByCategory.computeIfAbsent((String) document.remove(SLICE_KEY), categoryId -> new ArrayList<>())
+                    .add(mongoTemplate.getConverter().read(Contact.class, document));
+        }
+        Map<String, Slice<Contact>> slices = new HashMap<>();
+        for (String categoryId : categoryIds) {
+            List<Contact> content = contactsByCategory.getOrDefault(categoryId, List.of());
+            boolean hasNext = content.size() > pageable.getPageSize();
+            slices.put(categoryId, new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content,
+                    pageable, hasNext));
+        }
+        return slices;
+    }
+
+    @Override
+    public Map<String, Long> countByCategoryIds(Collection<String> categoryIds, String contactName, String phone) {
+        // The $in match uses the categoryIds index; after unwinding, only the requested categories are grouped
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(contactCriteria(Criteria.where("categoryIds").in(categoryIds), contactName, phone)),
+                Aggregation.unwind("categoryIds"),
+                Aggregation.match(Criteria.where("categoryIds").in(categoryIds)),
+                Aggregation.group("categoryIds").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, Contact.class, Document.class).forEach(document ->
+                counts.put(document.getString("_id"), ((Number) document.get("count")).longValue()));
+        return counts;
+    }
+
+    @Override
+    public Slice<Contact> findSlice(Criteria criteria, Pageable pageable, Collection<String> fields) {
+        return ProjectedSlices.find(mongoTemplate, criteria, pageable, fields, Contact.class);
+    }
+
+    // Category changes bump the version so a concurrent full-document update of the contact fails
+    // its optimistic lock instead of silently restoring the previous categoryIds
+
+    @Override
+    public Contact addCategoryIfAbsent(String contactId, String categoryId) {
+        Query query = Query.query(Criteria.where("_id").is(contactId).and("categoryIds").ne(categoryId));
+        Update update = new Update().addToSet("categoryIds", categoryId).inc("version", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Contact.class);
+    }
+
+    @Override
+    public boolean removeCategory(String contactId, String categoryId) {
+        Query query = Query.query(Criteria.where("_id").is(contactId).and("categoryIds").is(categoryId));
+        Update update = new Update().pull("categoryIds", categoryId).inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, Contact.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public long removeCategoryFromAllContacts(String categoryId) {
+        Query query = Query.query(Criteria.where("categoryIds").is(categoryId));
+        Update update = new Update().pull("categoryIds", categoryId).inc("version", 1);
+        return mongoTemplate.updateMulti(query, update, Contact.class).getModifiedCount();
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Contact.class);
+    }
+
+    @Override
+    public Stream<Contact> streamAll(int cursorBatchSize) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(cursorBatchSize);
+        query.fields().exclude("nameTokens", "phoneDigitsReversed");
+        return mongoTemplate.stream(query, Contact.class);
+    }
+
+    @Override
+    public List<BulkFailure> insertUnordered(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Contact.class).insert(contacts).execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            return toFailures(e);
+        }
+    }
+
+    @Override
+    public List<BulkFailure> updateUnordered(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return List.of();
+        }
+        // A bulk write only reports the matched count of the whole batch, so every update also stamps a token
+        // unique to this batch; the contacts carrying it afterwards are the ones whose version filter matched
+        String token = UUID.randomUUID().toString();
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Contact.class);
+        for (Contact contact : contacts) {
+            Query query = Query.query(Criteria.where("_id").is(contact.getId()).and("version").is(contact.getVersion()));
+            operations.updateOne(query, toUpdate(contact).set(LAST_WRITE, token));
+        }
+        Map<Integer, BulkFailure> failures = new TreeMap<>();
+        try {
+            operations.execute();
+        } catch (BulkOperationException e) {
+            toFailures(e).forEach(failure -> failures.put(failure.index(), failure));
+        }
+        Query written = Query.query(Criteria.where("_id").in(contacts.stream().map(Contact::getId).toList())
+                .and(LAST_WRITE).is(token));
+        written.fields().include("_id");
+        Set<String> writtenIds = new HashSet<>();
+        mongoTemplate.find(written, Contact.class).forEach(contact -> writtenIds.add(contact.getId()));
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            if (failures.containsKey(i)) {
+                continue;
+            }
+            if (writtenIds.contains(contact.getId())) {
+                contact.setVersion(contact.getVersion() + 1);
+            } else {
+                // The contact changed or vanished since it was read. A write that lands between the bulk write and
+                // this check also removes the token, which reports a conflict the client resolves by retrying
+                failures.put(i, new BulkFailure(i, BulkFailure.Reason.VERSION_CONFLICT,
+                        "Contact was modified concurrently"));
+            }
+        }
+        return new ArrayList<>(failures.values());
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> contactIds) {
+        Query query = Query.query(Criteria.where("_id").in(contactIds));
+        query.fields().include("_id");
+        Set<String> existingIds = new HashSet<>();
+        mongoTemplate.find(query, Contact.class).forEach(contact -> existingIds.add(contact.getId()));
+        return existingIds;
+    }
+
+    @Override
+    public long addCategoryToContacts(Collection<String> contactIds, String categoryId) {
+        Query query = Query.query(Criteria.where("_id").in(contactIds).and("categoryIds").ne(categoryId));
+        Update update = new Update().addToSet("categoryIds", categoryId).inc("version", 1);
+        return mongoTemplate.updateMulti(query, update, Contact.class).getModifiedCount();
+    }
+
+    @Override
+    public long removeCategoryFromContacts(Collection<String> contactIds, String categoryId) {
+        Query query = Query.query(Criteria.where("_id").in(contactIds).and("categoryIds").is(categoryId));
+        Update update = new Update().pull("categoryIds", categoryId).inc("version", 1);
+        return mongoTemplate.updateMulti(query, update, Contact.class).getModifiedCount();
+    }
+
+    private static Criteria categoryCriteria(String categoryId, String contactName, String phone) {
+        return contactCriteria(Criteria.where("categoryIds").is(categoryId), contactName, phone);
+    }
+
+    private static Criteria contactCriteria(Criteria criteria, String contactName, String phone) {
+        if (SearchNormalizer.hasTokens(contactName)) {
+            criteria.and("nameTokens").all(SearchNormalizer.prefixPatterns(contactName));
+        } else if (PhoneNormalizer.hasDigits(phone)) {
+            criteria.and("phoneDigitsReversed").regex(PhoneNormalizer.suffixPattern(phone));
+        }
+        return criteria;
+    }
+
+    private static List<Document> slicePipeline(Document filter, Document sort, Pageable pageable) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", filter));
+        if (!sort.isEmpty()) {
+            pipeline.add(new Document("$sort", sort));
+        }
+        if (pageable.getOffset() > 0) {
+            pipeline.add(new Document("$skip", pageable.getOffset()));
+        }
+        pipeline.add(new Document("$limit", pageable.getPageSize() + 1));
+        return pipeline;
+    }
+
+    private static Document toDocument(Sort sort) {
+        Document document = new Document();
+        sort.forEach(order -> document.put(order.getProperty(), order.isAscending() ? 1 : -1));
+        return document;
+    }
+
+    private static Update toUpdate(Contact contact) {
+        Update update = new Update()
+                .set("contactName", contact.getContactName())
+                .set("phone", contact.getPhone())
+                .set("categoryIds", contact.getCategoryIds())
+                .set("nameTokens", contact.getNameTokens())
+                .inc("version", 1);
+        // Absent rather than null, so the sparse unique phone index keeps ignoring contacts without digits
+        setOrUnset(update, "phoneDigits", contact.getPhoneDigits());
+        setOrUnset(update, "phoneDigitsReversed", contact.getPhoneDigitsReversed());
+        setOrUnset(update, "email", contact.getEmail());
+        return update;
+    }
+
+    private static void setOrUnset(Update update, String key, Object value) {
+        if (value != null) {
+            update.set(key, value);
+        } else {
+            update.unset(key);
+        }
+    }
+
+    private static List<BulkFailure> toFailures(BulkOperationException e) {
+        return e.getErrors().stream()
+                .map(error -> new BulkFailure(error.getIndex(),
+                        ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                                ? BulkFailure.Reason.DUPLICATE_KEY
+                                : BulkFailure.Reason.WRITE_ERROR,
+                        error.getMessage()))
+                .toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.nikhildev.projects.cms.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Slice queries with an optional field projection, shared by the custom repository fragments.
+ */
+final class ProjectedSlices {
+
+    private ProjectedSlices() {
+    }
+
+    /**
+     * Reads one slice, fetching one extra document to detect a next slice.
+     *
+     * @param fields the document fields to load besides _id, or null to load whole documents
+     */
+    static <T> Slice<T> find(MongoTemplate mongoTemplate, Criteria criteria, Pageable pageable,
+                             Collection<String> fields, Class<T> entityClass) {
+        Query query = Query.query(criteria)
+                .with(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+        if (fields != null) {
+            query.fields().include("_id");
+            fields.forEach(field -> query.fields().include(field));
+        }
+        List<T> content = mongoTemplate.find(query, entityClass);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
@@ -1,8 +1,12 @@
 package com.nikhildev.projects.cms.repositories;
 
 import com.nikhildev.projects.cms.models.Tenant;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,11 +15,19 @@ import java.util.Optional;
 @Repository
 public interface TenantRepository extends MongoRepository<Tenant, String> {
 
-    Page<Tenant> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    Slice<Tenant> findAllBy(Pageable pageable);
+
+    Slice<Tenant> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    long countByNameContainingIgnoreCase(String name);
 
     boolean existsByNameIgnoreCase(String name);
 
     Optional<Tenant> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    Window<Tenant> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Tenant> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
 }
\ No newline at end of file
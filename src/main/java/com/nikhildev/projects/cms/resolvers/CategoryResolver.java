@@ -1,34 +1,59 @@
 package com.nikhildev.projects.cms.resolvers;
 
+import com.nikhildev.projects.cms.config.TenantContext;
 import com.nikhildev.projects.cms.models.Category;
 import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.DeleteCategoryResult;
 import com.nikhildev.projects.cms.models.PagedResponse;
 import com.nikhildev.projects.cms.services.CategoryService;
 import com.nikhildev.projects.cms.services.ContactService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Controller
 @PreAuthorize("hasRole('USER')")
 public class CategoryResolver {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryResolver.class);
+    private static final String CATEGORY_CONTACTS_LOADER = "categoryContactsLoader";
+    private static final int DEFAULT_CONNECTION_SIZE = 20;
 
     private final CategoryService categoryService;
     private final ContactService contactService;
+    private final TenantContext tenantContext;
 
     @Autowired
-    public CategoryResolver(CategoryService categoryService, ContactService contactService) {
+    public CategoryResolver(CategoryService categoryService, ContactService contactService,
+                            TenantContext tenantContext, BatchLoaderRegistry batchLoaderRegistry) {
         this.categoryService = categoryService;
         this.contactService = contactService;
+        this.tenantContext = tenantContext;
+        batchLoaderRegistry.<CategoryContactsKey, PagedResponse<Contact>>forName(CATEGORY_CONTACTS_LOADER)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromCallable(() -> loadCategoryContacts(keys)));
     }
 
     @QueryMapping
@@ -37,15 +62,31 @@ public class CategoryResolver {
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
+            @Argument Sort.Direction sortOrder,
+            DataFetchingFieldSelectionSet selectionSet) {
         logger.info("GraphQL: Fetching categories with categoryName={}, page={}, pageSize={}, sortBy={}, sortOrder={}",
                 categoryName, page, pageSize, sortBy, sortOrder);
         PagedResponse<Category> response = categoryService.getAllCategories(
-                categoryName, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Fetched {} categories", response.getTotalElements());
+                categoryName, page, pageSize, sortBy, sortOrder,
+                selectionSet.containsAnyOf("totalElements", "totalPages"), contentFields(selectionSet));
+        logger.debug("GraphQL: Fetched {} categories", response.getNumberOfElements());
         return response;
     }
 
+    @QueryMapping
+    public Window<Category> categoriesConnection(
+            @Argument String categoryName,
+            ScrollSubrange subrange,
+            @Argument String sortBy,
+            @Argument Sort.Direction sortOrder) {
+        logger.info("GraphQL: Scrolling categories with categoryName={}, sortBy={}, sortOrder={}",
+                categoryName, sortBy, sortOrder);
+        ScrollPosition position = subrange.position()
+                .orElse(subrange.forward() ? ScrollPosition.keyset() : ScrollPosition.keyset().backward());
+        return categoryService.getCategoriesWindow(categoryName, position,
+                subrange.count().orElse(DEFAULT_CONNECTION_SIZE), sortBy, sortOrder);
+    }
+
     @QueryMapping
     public Category category(@Argument String id) {
         logger.info("GraphQL: Fetching category with ID: {}", id);
@@ -60,30 +101,52 @@ public class CategoryResolver {
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
+            @Argument Sort.Direction sortOrder,
+            DataFetchingFieldSelectionSet selectionSet) {
         logger.info("GraphQL: Fetching contacts for category ID: {} with filters: contactName={}, phone={}",
                 categoryId, contactName, phone);
         PagedResponse<Contact> contacts = categoryService.getCategoryContacts(
-                categoryId, contactName, phone, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Found {} contacts for category {}", contacts.getTotalElements(), categoryId);
+                categoryId, contactName, phone, page, pageSize, sortBy, sortOrder,
+                selectionSet.containsAnyOf("totalElements", "totalPages"));
+        logger.debug("GraphQL: Found {} contacts for category {}", contacts.getNumberOfElements(), categoryId);
         return contacts;
     }
 
     @SchemaMapping(typeName = "Category", field = "contacts")
-    public PagedResponse<Contact> contacts(
+    public CompletableFuture<PagedResponse<Contact>> contacts(
             Category category,
             @Argument String contactName,
             @Argument String phone,
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
-        logger.info("GraphQL: Fetching contacts for category ID: {} with filters: contactName={}, phone={}",
+            @Argument Sort.Direction sortOrder,
+            DataFetchingEnvironment environment) {
+        logger.debug("GraphQL: Queueing contacts for category ID: {} with filters: contactName={}, phone={}",
                 category.getId(), contactName, phone);
-        PagedResponse<Contact> contacts = categoryService.getCategoryContacts(
-                category.getId(), contactName, phone, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Found {} contacts for category {}", contacts.getTotalElements(), category.getId());
-        return contacts;
+        DataLoader<CategoryContactsKey, PagedResponse<Contact>> loader =
+                environment.getDataLoader(CATEGORY_CONTACTS_LOADER);
+        ContactFilter filter = new ContactFilter(tenantContext.getTenantId(), contactName, phone,
+                page, pageSize, sortBy, sortOrder,
+                environment.getSelectionSet().containsAnyOf("totalElements", "totalPages"));
+        return loader.load(new CategoryContactsKey(category.getId(), filter));
+    }
+
+    private Map<CategoryContactsKey, PagedResponse<Contact>> loadCategoryContacts(Set<CategoryContactsKey> keys) {
+        Map<CategoryContactsKey, PagedResponse<Contact>> result = new HashMap<>();
+        Map<ContactFilter, List<CategoryContactsKey>> keysByFilter = keys.stream()
+                .collect(Collectors.groupingBy(CategoryContactsKey::filter));
+        keysByFilter.forEach((filter, filterKeys) -> {
+            logger.info("GraphQL: Batch fetching contacts for {} categories with filters: contactName={}, phone={}",
+                    filterKeys.size(), filter.contactName(), filter.phone());
+            List<String> categoryIds = filterKeys.stream().map(CategoryContactsKey::categoryId).toList();
+            Map<String, PagedResponse<Contact>> contactsByCategory = tenantContext.callAsTenant(filter.tenantId(),
+                    () -> categoryService.getContactsForCategories(categoryIds, filter.contactName(), filter.phone(),
+                            filter.page(), filter.pageSize(), filter.sortBy(), filter.sortOrder(),
+                            filter.countTotal()));
+            filterKeys.forEach(key -> result.put(key, contactsByCategory.get(key.categoryId())));
+        });
+        return result;
     }
 
     @MutationMapping
@@ -103,10 +166,23 @@ public class CategoryResolver {
     }
 
     @MutationMapping
-    public Boolean deleteCategory(@Argument String id) {
+    public DeleteCategoryResult deleteCategory(@Argument String id) {
         logger.info("GraphQL: Deleting category with ID: {}", id);
-        categoryService.deleteCategory(id);
+        long modified = categoryService.deleteCategory(id);
         logger.info("GraphQL: Successfully deleted category: {}", id);
-        return true;
+        return new DeleteCategoryResult(id, modified);
+    }
+
+    private static Set<String> contentFields(DataFetchingFieldSelectionSet selectionSet) {
+        return selectionSet.getFields("content/*").stream()
+                .map(SelectedField::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private record ContactFilter(String tenantId, String contactName, String phone, int page, int pageSize,
+                                 String sortBy, Sort.Direction sortOrder, boolean countTotal) {
+    }
+
+    private record CategoryContactsKey(String categoryId, ContactFilter filter) {
     }
 }
\ No newline at end of file
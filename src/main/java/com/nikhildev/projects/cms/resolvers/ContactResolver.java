@@ -1,34 +1,60 @@
 package com.nikhildev.projects.cms.resolvers;
 
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.BulkCategoryResult;
 import com.nikhildev.projects.cms.models.Category;
 import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.ContactBatchResult;
 import com.nikhildev.projects.cms.models.PagedResponse;
 import com.nikhildev.projects.cms.services.CategoryService;
 import com.nikhildev.projects.cms.services.ContactService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Controller
 @PreAuthorize("hasRole('USER')")
 public class ContactResolver {
 
     private static final Logger logger = LoggerFactory.getLogger(ContactResolver.class);
+    private static final String CONTACT_CATEGORIES_LOADER = "contactCategoriesLoader";
+    private static final int DEFAULT_CONNECTION_SIZE = 20;
 
     private final ContactService contactService;
     private final CategoryService categoryService;
+    private final TenantContext tenantContext;
 
     @Autowired
-    public ContactResolver(ContactService contactService, CategoryService categoryService) {
+    public ContactResolver(ContactService contactService, CategoryService categoryService,
+                           TenantContext tenantContext, BatchLoaderRegistry batchLoaderRegistry) {
         this.contactService = contactService;
         this.categoryService = categoryService;
+        this.tenantContext = tenantContext;
+        batchLoaderRegistry.<ContactCategoriesKey, PagedResponse<Category>>forName(CONTACT_CATEGORIES_LOADER)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromCallable(() -> loadContactCategories(keys)));
     }
 
     @QueryMapping
@@ -39,15 +65,33 @@ public class ContactResolver {
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
+            @Argument Sort.Direction sortOrder,
+            DataFetchingFieldSelectionSet selectionSet) {
         logger.info("GraphQL: Fetching contacts with filters: contactName={}, phone={}, categoryName={}, page={}",
                 contactName, phone, categoryName, page);
         PagedResponse<Contact> response = contactService.getAllContacts(
-                contactName, phone, categoryName, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Fetched {} contacts", response.getTotalElements());
+                contactName, phone, categoryName, page, pageSize, sortBy, sortOrder,
+                selectionSet.containsAnyOf("totalElements", "totalPages"), contentFields(selectionSet));
+        logger.debug("GraphQL: Fetched {} contacts", response.getNumberOfElements());
         return response;
     }
 
+    @QueryMapping
+    public Window<Contact> contactsConnection(
+            @Argument String contactName,
+            @Argument String phone,
+            @Argument String categoryName,
+            ScrollSubrange subrange,
+            @Argument String sortBy,
+            @Argument Sort.Direction sortOrder) {
+        logger.info("GraphQL: Scrolling contacts with filters: contactName={}, phone={}, categoryName={}",
+                contactName, phone, categoryName);
+        ScrollPosition position = subrange.position()
+                .orElse(subrange.forward() ? ScrollPosition.keyset() : ScrollPosition.keyset().backward());
+        return contactService.getContactsWindow(contactName, phone, categoryName, position,
+                subrange.count().orElse(DEFAULT_CONNECTION_SIZE), sortBy, sortOrder);
+    }
+
     @QueryMapping
     public Contact contact(@Argument String id) {
         logger.info("GraphQL: Fetching contact with ID: {}", id);
@@ -61,29 +105,51 @@ public class ContactResolver {
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
+            @Argument Sort.Direction sortOrder,
+            DataFetchingFieldSelectionSet selectionSet) {
         logger.info("GraphQL: Fetching categories for contact ID: {} with name filter: {}", contactId, categoryName);
         PagedResponse<Category> categories = contactService.getContactCategories(
-                contactId, categoryName, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Found {} categories for contact {}", categories.getTotalElements(), contactId);
+                contactId, categoryName, page, pageSize, sortBy, sortOrder,
+                selectionSet.containsAnyOf("totalElements", "totalPages"));
+        logger.debug("GraphQL: Found {} categories for contact {}", categories.getNumberOfElements(), contactId);
         return categories;
     }
 
     @SchemaMapping(typeName = "Contact", field = "categories")
-    public PagedResponse<Category> categories(
+    public CompletableFuture<PagedResponse<Category>> categories(
             Contact contact,
             @Argument String categoryName,
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
-        logger.info("GraphQL: Fetching categories for contact ID: {} with name filter: {}",
+            @Argument Sort.Direction sortOrder,
+            DataFetchingEnvironment environment) {
+        logger.debug("GraphQL: Queueing categories for contact ID: {} with name filter: {}",
                 contact.getId(), categoryName);
-        PagedResponse<Category> categories = contactService.getContactCategories(
-                contact.getId(), categoryName, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Found {} categories for contact {}",
-                categories.getTotalElements(), contact.getId());
-        return categories;
+        DataLoader<ContactCategoriesKey, PagedResponse<Category>> loader =
+                environment.getDataLoader(CONTACT_CATEGORIES_LOADER);
+        CategoryFilter filter = new CategoryFilter(tenantContext.getTenantId(), categoryName,
+                page, pageSize, sortBy, sortOrder);
+        List<String> categoryIds = contact.getCategoryIds() != null ? List.copyOf(contact.getCategoryIds()) : List.of();
+        return loader.load(new ContactCategoriesKey(contact.getId(), categoryIds, filter));
+    }
+
+    private Map<ContactCategoriesKey, PagedResponse<Category>> loadContactCategories(Set<ContactCategoriesKey> keys) {
+        Map<ContactCategoriesKey, PagedResponse<Category>> result = new HashMap<>();
+        Map<CategoryFilter, List<ContactCategoriesKey>> keysByFilter = keys.stream()
+                .collect(Collectors.groupingBy(ContactCategoriesKey::filter));
+        keysByFilter.forEach((filter, filterKeys) -> {
+            logger.info("GraphQL: Batch fetching categories for {} contacts with name filter: {}",
+                    filterKeys.size(), filter.categoryName());
+            Set<List<String>> contactCategoryIds = filterKeys.stream()
+                    .map(ContactCategoriesKey::categoryIds)
+                    .collect(Collectors.toSet());
+            Map<List<String>, PagedResponse<Category>> categoriesByIds = tenantContext.callAsTenant(filter.tenantId(),
+                    () -> contactService.getCategoriesForContacts(contactCategoryIds, filter.categoryName(),
+                            filter.page(), filter.pageSize(), filter.sortBy(), filter.sortOrder()));
+            filterKeys.forEach(key -> result.put(key, categoriesByIds.get(key.categoryIds())));
+        });
+        return result;
     }
 
     @MutationMapping
@@ -125,4 +191,53 @@ public class ContactResolver {
         logger.info("GraphQL: Successfully removed category {} from contact {}", categoryId, contactId);
         return true;
     }
+
+    @MutationMapping
+    public ContactBatchResult createContacts(@Argument("inputs") List<Contact> contacts) {
+        logger.info("GraphQL: Creating batch of {} contacts", contacts.size());
+        ContactBatchResult result = contactService.createContacts(contacts);
+        logger.info("GraphQL: Created {} contacts, {} failed", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    @MutationMapping
+    public ContactBatchResult updateContacts(@Argument("inputs") List<Contact> contacts) {
+        logger.info("GraphQL: Updating batch of {} contacts", contacts.size());
+        ContactBatchResult result = contactService.updateContacts(contacts);
+        logger.info("GraphQL: Updated {} contacts, {} failed", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    @MutationMapping
+    public BulkCategoryResult bulkAssignCategory(@Argument List<String> contactIds, @Argument String categoryId) {
+        logger.info("GraphQL: Assigning category {} to {} contacts", categoryId, contactIds.size());
+        BulkCategoryResult result = contactService.bulkAssignCategory(contactIds, categoryId);
+        logger.info("GraphQL: Assigned category {} to {} contacts", categoryId, result.getModified());
+        return result;
+    }
+
+    @MutationMapping
+    public BulkCategoryResult bulkRemoveCategory(@Argument List<String> contactIds, @Argument String categoryId) {
+        logger.info("GraphQL: Removing category {} from {} contacts", categoryId, contactIds.size());
+        BulkCategoryResult result = contactService.bulkRemoveCategory(contactIds, categoryId);
+        logger.info("GraphQL: Removed category {} from {} contacts", categoryId, result.getModified());
+        return result;
+    }
+
+    private static Set<String> contentFields(DataFetchingFieldSelectionSet selectionSet) {
+        return selectionSet.getFields("content/*").stream()
+                .map(SelectedField::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private record CategoryFilter(String tenantId, String categoryName, int page, int pageSize,
+                                  String sortBy, Sort.Direction sortOrder) {
+    }
+
+    /**
+     * Keyed by an immutable copy of the contact's category ids rather than the contact itself, so the key hashes
+     * only what the result depends on and stays valid if the loaded contact is modified afterwards.
+     */
+    private record ContactCategoriesKey(String contactId, List<String> categoryIds, CategoryFilter filter) {
+    }
 }
\ No newline at end of file
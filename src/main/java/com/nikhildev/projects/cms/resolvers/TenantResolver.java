@@ -1,29 +1,46 @@
 package com.nikhildev.projects.cms.resolvers;
 
+import com.nikhildev.projects.cms.config.SlowQueryRecorder;
 import com.nikhildev.projects.cms.models.PagedResponse;
+import com.nikhildev.projects.cms.models.SlowQuery;
 import com.nikhildev.projects.cms.models.Tenant;
 import com.nikhildev.projects.cms.services.TenantService;
+import com.nikhildev.projects.cms.services.TenantStorageMigrator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 @PreAuthorize("hasRole('ADMIN')")
 public class TenantResolver {
 
     private static final Logger logger = LoggerFactory.getLogger(TenantResolver.class);
+    private static final int DEFAULT_CONNECTION_SIZE = 20;
+    // Matches the schema default, for clients that pass an explicit null
+    private static final int DEFAULT_SLOW_QUERY_LIMIT = 50;
 
     private final TenantService tenantService;
+    private final TenantStorageMigrator tenantStorageMigrator;
+    private final SlowQueryRecorder slowQueryRecorder;
 
     @Autowired
-    public TenantResolver(TenantService tenantService) {
+    public TenantResolver(TenantService tenantService, TenantStorageMigrator tenantStorageMigrator,
+                          SlowQueryRecorder slowQueryRecorder) {
         this.tenantService = tenantService;
+        this.tenantStorageMigrator = tenantStorageMigrator;
+        this.slowQueryRecorder = slowQueryRecorder;
     }
 
     @QueryMapping
@@ -32,20 +49,41 @@ public class TenantResolver {
             @Argument Integer page,
             @Argument Integer pageSize,
             @Argument String sortBy,
-            @Argument Sort.Direction sortOrder) {
+            @Argument Sort.Direction sortOrder,
+            DataFetchingFieldSelectionSet selectionSet) {
 
         logger.info("GraphQL: Fetching tenants with name filter: {}, page: {}", name, page);
-        PagedResponse<Tenant> response = tenantService.getAllTenants(name, page, pageSize, sortBy, sortOrder);
-        logger.debug("GraphQL: Fetched {} tenants", response.getTotalElements());
+        PagedResponse<Tenant> response = tenantService.getAllTenants(name, page, pageSize, sortBy, sortOrder,
+                selectionSet.containsAnyOf("totalElements", "totalPages"));
+        logger.debug("GraphQL: Fetched {} tenants", response.getNumberOfElements());
         return response;
     }
 
+    @QueryMapping
+    public Window<Tenant> tenantsConnection(
+            @Argument String name,
+            ScrollSubrange subrange,
+            @Argument String sortBy,
+            @Argument Sort.Direction sortOrder) {
+        logger.info("GraphQL: Scrolling tenants with name filter: {}", name);
+        ScrollPosition position = subrange.position()
+                .orElse(subrange.forward() ? ScrollPosition.keyset() : ScrollPosition.keyset().backward());
+        return tenantService.getTenantsWindow(name, position,
+                subrange.count().orElse(DEFAULT_CONNECTION_SIZE), sortBy, sortOrder);
+    }
+
     @QueryMapping
     public Tenant tenant(@Argument String id) {
         logger.info("GraphQL: Fetching tenant with ID: {}", id);
         return tenantService.getTenantById(id);
     }
 
+    @QueryMapping
+    public List<SlowQuery> slowQueries(@Argument String tenantId, @Argument Integer limit) {
+        logger.info("GraphQL: Fetching slow queries for tenant: {}", tenantId);
+        return slowQueryRecorder.getSlowQueries(tenantId, limit != null ? limit : DEFAULT_SLOW_QUERY_LIMIT);
+    }
+
     @MutationMapping
     public Tenant createTenant(@Argument("input") Tenant tenant) {
         logger.info("GraphQL: Creating new tenant with name: {}", tenant.getName());
@@ -69,4 +107,12 @@ public class TenantResolver {
         logger.info("GraphQL: Deleted tenant with ID: {}", id);
         return true;
     }
-}
\ No newline at end of file
+
+    @MutationMapping
+    public Tenant migrateTenantStorage(@Argument String id, @Argument Tenant.Storage storage) {
+        logger.info("GraphQL: Migrating storage of tenant with ID: {} to {}", id, storage);
+        Tenant migratingTenant = tenantStorageMigrator.migrate(id, storage);
+        logger.info("GraphQL: Started migrating storage of tenant with ID: {}", id);
+        return migratingTenant;
+    }
+}
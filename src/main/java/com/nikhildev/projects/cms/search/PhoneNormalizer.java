@@ -0,0 +1,81 @@
+package com.nikhildev.projects.cms.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Converts phone numbers to the canonical digits form used for uniqueness and lookups.
+ * Formatting characters are dropped, an international prefix ("+" or "00") is removed, and national
+ * numbers lose their trunk "0" and gain the configured default country code, so that "+1 555-0100"
+ * and "555 0100" canonicalize to the same digits when the default country code is 1.
+ * <p>
+ * The default country code is required: without it national numbers would keep their bare digits and never
+ * collide with the same number written internationally, so uniqueness would depend on how a phone was typed.
+ */
+@Component
+public class PhoneNormalizer {
+
+    private final String defaultCountryCode;
+
+    public PhoneNormalizer(@Value("${cms.phone.default-country-code:}") String defaultCountryCode) {
+        this.defaultCountryCode = digits(defaultCountryCode);
+        if (this.defaultCountryCode.isEmpty()) {
+            throw new IllegalStateException("cms.phone.default-country-code must be set to the country code of "
+                    + "national phone numbers, e.g. 1 or 44; it was '" + defaultCountryCode + "'");
+        }
+    }
+
+    public String canonicalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.trim();
+        String digits = digits(trimmed);
+        if (digits.isEmpty() || trimmed.startsWith("+")) {
+            return digits;
+        }
+        if (digits.startsWith("00")) {
+            return digits.substring(2);
+        }
+        if (defaultCountryCode.isEmpty()) {
+            return digits;
+        }
+        return defaultCountryCode + (digits.startsWith("0") ? digits.substring(1) : digits);
+    }
+
+    public static String digits(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Whether the text contains any digit. A phone filter without digits would compile to a bare "^" that
+     * matches every contact, so callers treat it as no phone filter.
+     */
+    public static boolean hasDigits(String text) {
+        return !digits(text).isEmpty();
+    }
+
+    public static String reverse(String digits) {
+        return digits == null ? null : new StringBuilder(digits).reverse().toString();
+    }
+
+    /**
+     * Builds an anchored pattern over the reversed digits, turning an "ends with" search such as
+     * the last four digits into an index-friendly prefix match.
+     */
+    public static Pattern suffixPattern(String query) {
+        return Pattern.compile("^" + reverse(digits(query)));
+    }
+}
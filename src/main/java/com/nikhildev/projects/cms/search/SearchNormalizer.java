@@ -0,0 +1,66 @@
+package com.nikhildev.projects.cms.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes free text into the lowercased, accent-folded form stored in the indexed search fields,
+ * so that name lookups can be served by anchored (index-friendly) prefix matches instead of
+ * unanchored case-insensitive regular expressions.
+ */
+public final class SearchNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchNormalizer() {
+    }
+
+    /**
+     * Lowercases, strips accents and collapses separators, e.g. "  Zoë  O'Brien" becomes "zoe o brien".
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return TOKEN_SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits text into distinct normalized tokens, in order of first appearance.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized == null || normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> tokens = new LinkedHashSet<>(List.of(normalized.split(" ")));
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Whether the text has anything to search for. Text made only of punctuation or whitespace has no tokens,
+     * and an empty {@code $all} would match nothing, so callers treat it as no name filter.
+     */
+    public static boolean hasTokens(String text) {
+        String normalized = normalize(text);
+        return normalized != null && !normalized.isEmpty();
+    }
+
+    /**
+     * Builds one anchored prefix pattern per query token. A document matches a search when every
+     * pattern matches one of its tokens, so "jo sm" finds "John Smith" and "Smith, Joanna".
+     * Tokens only contain letters and digits, so they need no regex escaping.
+     */
+    public static List<Pattern> prefixPatterns(String query) {
+        return tokenize(query).stream()
+                .map(token -> Pattern.compile("^" + token))
+                .toList();
+    }
+}
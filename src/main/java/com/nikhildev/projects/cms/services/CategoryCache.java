@@ -0,0 +1,166 @@
+package com.nikhildev.projects.cms.services;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of each tenant's categories. Categories are few and rarely change, so the whole set of a
+ * tenant is loaded on first use and answers reads and name searches from memory until it expires or
+ * {@link CategoryService} invalidates it after a write. The cache holds at most a bounded number of tenants.
+ * Returned categories are shared and must not be modified.
+ * <p>
+ * Other nodes may have created or deleted categories since the tenant was loaded, so an id missing from the
+ * cache is confirmed against the database before it is reported as missing. Writes that reference categories
+ * must not rely on the cache at all and check the ids with {@link CategoryRepository#findExistingIds}.
+ */
+@Component
+public class CategoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryCache.class);
+
+    private final CategoryRepository categoryRepository;
+    private final TenantContext tenantContext;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxTenants;
+
+    @Autowired
+    public CategoryCache(CategoryRepository categoryRepository,
+                         TenantContext tenantContext,
+                         @Value("${cms.category-cache.ttl:10m}") Duration ttl,
+                         @Value("${cms.category-cache.max-tenants:1000}") int maxTenants) {
+        this.categoryRepository = categoryRepository;
+        this.tenantContext = tenantContext;
+        this.ttlNanos = ttl.toNanos();
+        this.maxTenants = maxTenants;
+    }
+
+    public Optional<Category> get(String categoryId) {
+        return Optional.ofNullable(categories().get(categoryId));
+    }
+
+    public boolean exists(String categoryId) {
+        return findMissingIds(List.of(categoryId)).isEmpty();
+    }
+
+    /**
+     * Answers cached ids from memory and confirms the others with a single {@code _id $in} query. If any of them
+     * exists after all, the cached categories are stale and the tenant is reloaded on next use.
+     *
+     * @return the given ids that do not belong to a category of the current tenant, in their original order
+     */
+    public Set<String> findMissingIds(Collection<String> categoryIds) {
+        Map<String, Category> categories = categories();
+        Set<String> uncachedIds = new LinkedHashSet<>();
+        for (String categoryId : categoryIds) {
+            if (!categories.containsKey(categoryId)) {
+                uncachedIds.add(categoryId);
+            }
+        }
+        if (uncachedIds.isEmpty()) {
+            return uncachedIds;
+        }
+        Set<String> existingIds = categoryRepository.findExistingIds(uncachedIds);
+        if (!existingIds.isEmpty()) {
+            logger.debug("[Tenant: {}] {} categories are missing from the cache", tenantContext.getTenantId(),
+                    existingIds.size());
+            invalidate(tenantContext.getTenantId());
+            uncachedIds.removeAll(existingIds);
+        }
+        return uncachedIds;
+    }
+
+    /**
+     * Case-insensitive substring match, equivalent to {@code findByCategoryNameContainingIgnoreCase}.
+     */
+    public List<String> findIdsByNameContaining(String categoryName) {
+        String fragment = categoryName.toLowerCase(Locale.ROOT);
+        return categories().values().stream()
+                .filter(category -> category.getCategoryName() != null
+                        && category.getCategoryName().toLowerCase(Locale.ROOT).contains(fragment))
+                .map(Category::getId)
+                .toList();
+    }
+
+    public Optional<String> findIdByName(String categoryName) {
+        return categories().values().stream()
+                .filter(category -> categoryName.equalsIgnoreCase(category.getCategoryName()))
+                .map(Category::getId)
+                .findFirst();
+    }
+
+    public void invalidate(String tenantId) {
+        generation.incrementAndGet();
+        if (tenantId != null && entries.remove(tenantId) != null) {
+            logger.debug("[Tenant: {}] Invalidated cached categories", tenantId);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private Map<String, Category> categories() {
+        String tenantId = tenantContext.getTenantId();
+        if (tenantId == null || maxTenants <= 0) {
+            return load();
+        }
+        Entry entry = entries.get(tenantId);
+        if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.categories();
+        }
+        long loadGeneration = generation.get();
+        Map<String, Category> categories = load();
+        if (entries.size() >= maxTenants) {
+            evict();
+        }
+        if (generation.get() == loadGeneration) {
+            entries.put(tenantId, new Entry(categories, System.nanoTime() + ttlNanos));
+            logger.debug("[Tenant: {}] Cached {} categories", tenantId, categories.size());
+        }
+        return categories;
+    }
+
+    private Map<String, Category> load() {
+        Map<String, Category> categories = new LinkedHashMap<>();
+        categoryRepository.findAll().forEach(category -> categories.put(category.getId(), category));
+        return categories;
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        if (entries.size() >= maxTenants) {
+            Iterator<String> tenantIds = entries.keySet().iterator();
+            if (tenantIds.hasNext()) {
+                tenantIds.next();
+                tenantIds.remove();
+            }
+        }
+    }
+
+    private record Entry(Map<String, Category> categories, long expiresAt) {
+    }
+}
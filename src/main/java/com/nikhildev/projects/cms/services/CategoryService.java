@@ -8,13 +8,24 @@ import com.nikhildev.projects.cms.models.Contact;
 import com.nikhildev.projects.cms.models.PagedResponse;
 import com.nikhildev.projects.cms.repositories.CategoryRepository;
 import com.nikhildev.projects.cms.repositories.ContactRepository;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.search.SearchNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
 
 @Service
 public class CategoryService {
@@ -23,33 +34,63 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ContactRepository contactRepository;
+    private final CategoryCache categoryCache;
     private final TenantContext tenantContext;
 
     @Autowired
     public CategoryService(CategoryRepository categoryRepository,
                            ContactRepository contactRepository,
+                           CategoryCache categoryCache,
                            TenantContext tenantContext) {
         this.categoryRepository = categoryRepository;
         this.contactRepository = contactRepository;
+        this.categoryCache = categoryCache;
         this.tenantContext = tenantContext;
     }
 
+    /**
+     * @param selectedFields the requested GraphQL fields of Category, used to load only the document fields they
+     *                       need; null loads whole documents
+     */
     public PagedResponse<Category> getAllCategories(String categoryName, int page, int size,
-                                                    String sortBy, Sort.Direction sortOrder) {
+                                                    String sortBy, Sort.Direction sortOrder, boolean countTotal,
+                                                    Collection<String> selectedFields) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Fetching categories with name: {}, page: {}", tenantId, categoryName, page);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder, sortBy));
-        Page<Category> categoriesPage;
+        Criteria criteria;
+        LongSupplier totalQuery;
         if (categoryName != null && !categoryName.isEmpty()) {
             logger.debug("[Tenant: {}] Searching categories by name: {}", tenantId, categoryName);
-            List<Category> categoryList = categoryRepository.findByCategoryNameContainingIgnoreCase(categoryName);
-            categoriesPage = new PageImpl<>(categoryList, pageable, categoryList.size());
+            criteria = Criteria.where("categoryName")
+                    .regex(Pattern.compile(Pattern.quote(categoryName), Pattern.CASE_INSENSITIVE));
+            totalQuery = () -> categoryRepository.countByCategoryNameContainingIgnoreCase(categoryName);
         } else {
             logger.debug("[Tenant: {}] Fetching all categories", tenantId);
-            categoriesPage = categoryRepository.findAll(pageable);
+            criteria = new Criteria();
+            totalQuery = categoryRepository::count;
         }
-        logger.debug("[Tenant: {}] Found {} categories", tenantId, categoriesPage.getTotalElements());
-        return PagedResponse.fromPage(categoriesPage);
+        Slice<Category> categoriesSlice = categoryRepository.findSlice(criteria, pageable, categoryProjection(selectedFields));
+        logger.debug("[Tenant: {}] Found {} categories", tenantId, categoriesSlice.getNumberOfElements());
+        return PagedResponse.fromSlice(categoriesSlice, countTotal, totalQuery);
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllCategories} that never skips or counts documents.
+     */
+    public Window<Category> getCategoriesWindow(String categoryName, ScrollPosition position, int limit,
+                                                String sortBy, Sort.Direction sortOrder) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Scrolling categories with name: {}, limit: {}", tenantId, categoryName, limit);
+        Sort sort = Sort.by(sortOrder, sortBy);
+        Window<Category> categories;
+        if (StringUtils.hasText(categoryName)) {
+            categories = categoryRepository.findByCategoryNameContainingIgnoreCase(categoryName, position, sort, Limit.of(limit));
+        } else {
+            categories = categoryRepository.findAllBy(position, sort, Limit.of(limit));
+        }
+        logger.debug("[Tenant: {}] Scrolled {} categories", tenantId, categories.size());
+        return categories;
     }
 
     public Category getCategoryById(String categoryId) {
@@ -72,6 +113,7 @@ public class CategoryService {
             throw new ResourceAlreadyExistsException("Category with name: " + category.getCategoryName() + " already exists");
         }
         Category savedCategory = categoryRepository.save(category);
+        categoryCache.invalidate(tenantId);
         logger.info("[Tenant: {}] Created new category with ID: {}", tenantId, savedCategory.getId());
         return savedCategory;
     }
@@ -90,45 +132,111 @@ public class CategoryService {
         }
         existingCategory.updateFrom(categoryDetails);
         Category updatedCategory = categoryRepository.save(existingCategory);
+        categoryCache.invalidate(tenantId);
         logger.info("[Tenant: {}] Updated category with ID: {}", tenantId, categoryId);
         return updatedCategory;
     }
 
-    public void deleteCategory(String categoryId) {
+    /**
+     * Deletes the category, then pulls it from all contacts in one updateMany. The category is removed
+     * first so no new assignment can reference it. If the pull fails, retrying the delete finds the category
+     * gone but still pulls its leftover references; only an id that no contact references is reported as
+     * not found.
+     *
+     * @return the number of contacts the category was removed from
+     */
+    public long deleteCategory(String categoryId) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Attempting to delete category with ID: {}", tenantId, categoryId);
-        if (!categoryRepository.existsById(categoryId)) {
+        boolean existed = categoryRepository.existsById(categoryId);
+        if (existed) {
+            categoryRepository.deleteById(categoryId);
+            categoryCache.invalidate(tenantId);
+        }
+        long modifiedContacts = contactRepository.removeCategoryFromAllContacts(categoryId);
+        if (!existed && modifiedContacts == 0) {
             logger.error("[Tenant: {}] Cannot delete category. Not found with ID: {}", tenantId, categoryId);
             throw new ResourceNotFoundException("Category not found with id: " + categoryId);
         }
-        categoryRepository.deleteById(categoryId);
-        List<Contact> contacts = contactRepository.findByCategoryIdsIn(categoryId);
-        contacts.forEach(contact -> {
-            contact.getCategoryIds().remove(categoryId);
-            contactRepository.save(contact);
-        });
-        logger.info("[Tenant: {}] Deleted category with ID: {}", tenantId, categoryId);
+        logger.info("[Tenant: {}] Deleted category with ID: {} and removed it from {} contacts",
+                tenantId, categoryId, modifiedContacts);
+        return modifiedContacts;
     }
 
     public PagedResponse<Contact> getCategoryContacts(String categoryId, String contactName, String phone,
-                                                      int page, int size, String sortBy, Sort.Direction sortOrder) {
+                                                      int page, int size, String sortBy, Sort.Direction sortOrder,
+                                                      boolean countTotal) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Fetching contacts for category: {}, name: {}, phone: {}, page: {}",
                 tenantId, categoryId, contactName, phone, page);
-        getCategoryById(categoryId);
+        if (!categoryCache.exists(categoryId)) {
+            logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder, sortBy));
-        Page<Contact> contactsPage;
-        if (contactName != null && !contactName.isEmpty()) {
+        Slice<Contact> contactsSlice;
+        LongSupplier totalQuery;
+        if (SearchNormalizer.hasTokens(contactName)) {
             logger.debug("[Tenant: {}] Searching contacts by name: {} in category: {}", tenantId, contactName, categoryId);
-            contactsPage = contactRepository.findByCategoryIdsInAndContactNameContainingIgnoreCase(categoryId, contactName, pageable);
-        } else if (phone != null && !phone.isEmpty()) {
+            List<Pattern> namePrefixes = SearchNormalizer.prefixPatterns(contactName);
+            contactsSlice = contactRepository.findByCategoryIdAndNameTokenPrefixes(categoryId, namePrefixes, pageable);
+            totalQuery = () -> contactRepository.countByCategoryIdAndNameTokenPrefixes(categoryId, namePrefixes);
+        } else if (PhoneNormalizer.hasDigits(phone)) {
             logger.debug("[Tenant: {}] Searching contacts by phone: {} in category: {}", tenantId, phone, categoryId);
-            contactsPage = contactRepository.findByCategoryIdsInAndPhoneContaining(categoryId, phone, pageable);
+            Pattern phoneSuffix = PhoneNormalizer.suffixPattern(phone);
+            contactsSlice = contactRepository.findByCategoryIdAndPhoneSuffix(categoryId, phoneSuffix, pageable);
+            totalQuery = () -> contactRepository.countByCategoryIdAndPhoneSuffix(categoryId, phoneSuffix);
         } else {
             logger.debug("[Tenant: {}] Fetching all contacts in category: {}", tenantId, categoryId);
-            contactsPage = contactRepository.findByCategoryIdsIn(categoryId, pageable);
+            contactsSlice = contactRepository.findByCategoryIdsIn(categoryId, pageable);
+            totalQuery = () -> contactRepository.countByCategoryIdsIn(categoryId);
         }
-        logger.debug("[Tenant: {}] Found {} contacts in category {}", tenantId, contactsPage.getTotalElements(), categoryId);
-        return PagedResponse.fromPage(contactsPage);
+        logger.debug("[Tenant: {}] Found {} contacts in category {}", tenantId, contactsSlice.getNumberOfElements(), categoryId);
+        return PagedResponse.fromSlice(contactsSlice, countTotal, totalQuery);
+    }
+
+    /**
+     * Maps requested GraphQL Category fields to the document fields backing them; contacts resolve from the id,
+     * which is always loaded.
+     */
+    private static Set<String> categoryProjection(Collection<String> selectedFields) {
+        if (selectedFields == null) {
+            return null;
+        }
+        Set<String> fields = new HashSet<>();
+        for (String selectedField : selectedFields) {
+            if (selectedField.equals("categoryName") || selectedField.equals("description")) {
+                fields.add(selectedField);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Batched variant of {@link #getCategoryContacts} used by the Category.contacts DataLoader.
+     * The categories are already loaded by the parent field, so they are not validated again.
+     */
+    public Map<String, PagedResponse<Contact>> getContactsForCategories(Collection<String> categoryIds, String contactName,
+                                                                        String phone, int page, int size,
+                                                                        String sortBy, Sort.Direction sortOrder,
+                                                                        boolean countTotal) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Fetching contacts for {} categories, name: {}, phone: {}, page: {}",
+                tenantId, categoryIds.size(), contactName, phone, page);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder, sortBy));
+        Map<String, Slice<Contact>> contactSlices = contactRepository.findSlicesByCategoryIds(
+                categoryIds, contactName, phone, pageable);
+        // Only the categories whose total does not follow from their slice are counted, all in one aggregation
+        List<String> countedIds = !countTotal ? List.of() : contactSlices.entrySet().stream()
+                .filter(entry -> !PagedResponse.isTotalKnown(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<String, Long> totals = countedIds.isEmpty()
+                ? Map.of() : contactRepository.countByCategoryIds(countedIds, contactName, phone);
+        Map<String, PagedResponse<Contact>> contactsByCategory = new HashMap<>();
+        contactSlices.forEach((categoryId, contactsSlice) ->
+                contactsByCategory.put(categoryId, PagedResponse.fromSlice(contactsSlice, countTotal,
+                        () -> totals.getOrDefault(categoryId, 0L))));
+        return contactsByCategory;
     }
 }
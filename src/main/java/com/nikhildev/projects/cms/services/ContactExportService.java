@@ -0,0 +1,100 @@
+package com.nikhildev.projects.cms.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import com.nikhildev.projects.cms.repositories.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes all contacts of the current tenant as NDJSON, one contact per line with its category names joined
+ * in. Contacts are read over a single cursor and written straight to the output, so memory stays bounded by
+ * the cursor batch and the category name map regardless of the number of contacts.
+ */
+@Service
+public class ContactExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportService.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ContactRepository contactRepository;
+    private final CategoryRepository categoryRepository;
+    private final TenantContext tenantContext;
+    private final int cursorBatchSize;
+
+    @Autowired
+    public ContactExportService(ContactRepository contactRepository,
+                                CategoryRepository categoryRepository,
+                                TenantContext tenantContext,
+                                @Value("${cms.export.cursor-batch-size:1000}") int cursorBatchSize) {
+        this.contactRepository = contactRepository;
+        this.categoryRepository = categoryRepository;
+        this.tenantContext = tenantContext;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    /**
+     * @return the number of exported contacts
+     */
+    public long exportContacts(OutputStream output) throws IOException {
+        String tenantId = tenantContext.getTenantId();
+        logger.info("[Tenant: {}] Starting contact export", tenantId);
+        Map<String, String> categoryNames = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoryNames.put(category.getId(), category.getCategoryName());
+        }
+        long exported = 0;
+        try (Stream<Contact> contacts = contactRepository.streamAll(cursorBatchSize);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            Iterator<Contact> iterator = contacts.iterator();
+            while (iterator.hasNext()) {
+                writeContact(generator, iterator.next(), categoryNames);
+                generator.writeRaw('\n');
+                exported++;
+            }
+        }
+        logger.info("[Tenant: {}] Exported {} contacts", tenantId, exported);
+        return exported;
+    }
+
+    private static void writeContact(JsonGenerator generator, Contact contact,
+                                     Map<String, String> categoryNames) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", contact.getId());
+        generator.writeStringField("contactName", contact.getContactName());
+        generator.writeStringField("phone", contact.getPhone());
+        if (contact.getEmail() != null) {
+            generator.writeStringField("email", contact.getEmail());
+        }
+        generator.writeArrayFieldStart("categoryIds");
+        for (String categoryId : contact.getCategoryIds()) {
+            generator.writeString(categoryId);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("categoryNames");
+        for (String categoryId : contact.getCategoryIds()) {
+            String categoryName = categoryNames.get(categoryId);
+            if (categoryName != null) {
+                generator.writeString(categoryName);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,258 @@
+package com.nikhildev.projects.cms.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
+import com.nikhildev.projects.cms.imports.ContactRow;
+import com.nikhildev.projects.cms.imports.ContactRowReader;
+import com.nikhildev.projects.cms.imports.ImportFormat;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.ContactBatchResult;
+import com.nikhildev.projects.cms.models.ImportReport;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Imports contact files into the current tenant without holding more than one batch in memory. Rows are
+ * parsed one at a time and written through {@link ContactService#createContacts} in batches; the next part
+ * of the upload is only read once the previous batch has been written, so a slow database throttles the
+ * upload instead of filling the heap. Rejected rows are written to a per-import NDJSON file.
+ * <p>
+ * The import runs on the uploading request's thread, and the finished report is the response. Reports and
+ * rejected rows are kept for {@code cms.import.retention} so they can be fetched again by import id.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ContactService contactService;
+    private final CategoryCache categoryCache;
+    private final TenantContext tenantContext;
+    private final Validator validator;
+    private final int batchSize;
+    private final Path rejectsDirectory;
+    private final Duration retention;
+    private final Map<String, ImportReport> imports = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ContactImportService(ContactService contactService,
+                                CategoryCache categoryCache,
+                                TenantContext tenantContext,
+                                Validator validator,
+                                @Value("${cms.import.batch-size:1000}") int batchSize,
+                                @Value("${cms.import.rejects-dir:${java.io.tmpdir}/cms-import-rejects}") Path rejectsDirectory,
+                                @Value("${cms.import.retention:1h}") Duration retention) {
+        this.contactService = contactService;
+        this.categoryCache = categoryCache;
+        this.tenantContext = tenantContext;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.rejectsDirectory = rejectsDirectory;
+        this.retention = retention;
+    }
+
+    /**
+     * @param importId optional UUID chosen by the client, so that the report can still be looked up when the
+     *                 response is lost; a random id is assigned when it is null
+     */
+    public ImportReport importContacts(InputStream input, Charset charset, ImportFormat format,
+                                       String importId) throws IOException {
+        String tenantId = tenantContext.getTenantId();
+        String id = importId != null ? UUID.fromString(importId).toString() : UUID.randomUUID().toString();
+        evictExpiredImports();
+        ImportReport report = new ImportReport(id, format);
+        if (imports.putIfAbsent(key(tenantId, id), report) != null) {
+            throw new IllegalArgumentException("Import " + id + " already exists");
+        }
+        logger.info("[Tenant: {}] Starting {} contact import {}", tenantId, format, id);
+        Map<String, Optional<String>> categoryIdsByName = new HashMap<>();
+        try (ContactRowReader reader = format.open(new BufferedReader(new InputStreamReader(input, charset)));
+             RejectedRowWriter rejects = new RejectedRowWriter(rejectsFile(tenantId, id))) {
+            List<ContactRow> batch = new ArrayList<>(batchSize);
+            ContactRow row;
+            while ((row = reader.next()) != null) {
+                report.setRowsRead(report.getRowsRead() + 1);
+                String error = row.error() != null ? row.error() : prepare(row, categoryIdsByName);
+                if (error != null) {
+                    reject(report, rejects, row, error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(tenantId, report, rejects, batch);
+                    batch.clear();
+                }
+            }
+            writeBatch(tenantId, report, rejects, batch);
+            report.setStatus(ImportReport.Status.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            logger.error("[Tenant: {}] Contact import {} failed after {} rows", tenantId, id, report.getRowsRead(), e);
+            report.setStatus(ImportReport.Status.FAILED);
+            report.setError(e.getMessage());
+            throw e;
+        } finally {
+            report.setFinishedAt(Instant.now());
+        }
+        logger.info("[Tenant: {}] Finished contact import {}: {} rows read, {} imported, {} rejected",
+                tenantId, id, report.getRowsRead(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    public ImportReport getImport(String importId) {
+        ImportReport report = imports.get(key(tenantContext.getTenantId(), importId));
+        if (report == null) {
+            throw new ResourceNotFoundException("Import not found with id: " + importId);
+        }
+        return report;
+    }
+
+    /**
+     * Returns the NDJSON file of rejected rows; each line holds the source line number, the error and the raw row.
+     */
+    public Path getRejectedRows(String importId) {
+        ImportReport report = getImport(importId);
+        Path file = rejectsFile(tenantContext.getTenantId(), report.getImportId());
+        if (!Files.exists(file)) {
+            throw new ResourceNotFoundException("No rejected rows for import: " + importId);
+        }
+        return file;
+    }
+
+    /**
+     * Resolves category names through the per-import cache, backed by {@link CategoryCache}, and validates the
+     * contact constraints.
+     *
+     * @return the reason to reject the row, or null when it can be written
+     */
+    private String prepare(ContactRow row, Map<String, Optional<String>> categoryIdsByName) {
+        Contact contact = row.contact();
+        if (!row.categoryNames().isEmpty()) {
+            Set<String> categoryIds = new LinkedHashSet<>(contact.getCategoryIds());
+            for (String categoryName : row.categoryNames()) {
+                Optional<String> categoryId = categoryIdsByName.computeIfAbsent(categoryName.toLowerCase(Locale.ROOT),
+                        name -> categoryCache.findIdByName(categoryName));
+                if (categoryId.isEmpty()) {
+                    return "Category not found with name: " + categoryName;
+                }
+                categoryIds.add(categoryId.get());
+            }
+            contact.setCategoryIds(new ArrayList<>(categoryIds));
+        }
+        return validator.validate(contact).stream()
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void writeBatch(String tenantId, ImportReport report, RejectedRowWriter rejects,
+                            List<ContactRow> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ContactBatchResult result = contactService.createContacts(batch.stream().map(ContactRow::contact).toList());
+        for (ContactBatchResult.Item item : result.getResults()) {
+            if (item.getError() != null) {
+                reject(report, rejects, batch.get(item.getIndex()), item.getError());
+            }
+        }
+        report.setImported(report.getImported() + result.getSucceeded());
+        logger.debug("[Tenant: {}] Import {} wrote a batch: {} rows read, {} imported, {} rejected",
+                tenantId, report.getImportId(), report.getRowsRead(), report.getImported(), report.getRejected());
+    }
+
+    private static void reject(ImportReport report, RejectedRowWriter rejects, ContactRow row,
+                               String error) throws IOException {
+        rejects.write(row, error);
+        report.setRejected(report.getRejected() + 1);
+        report.setRejectedRowsAvailable(true);
+    }
+
+    private void evictExpiredImports() {
+        Instant cutoff = Instant.now().minus(retention);
+        imports.entrySet().removeIf(entry -> {
+            Instant finishedAt = entry.getValue().getFinishedAt();
+            if (finishedAt == null || finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            String[] tenantAndId = entry.getKey().split(":", 2);
+            try {
+                Files.deleteIfExists(rejectsFile(tenantAndId[0], tenantAndId[1]));
+            } catch (IOException e) {
+                logger.warn("Could not delete rejected rows of import {}: {}", tenantAndId[1], e.getMessage());
+            }
+            return true;
+        });
+    }
+
+    private Path rejectsFile(String tenantId, String importId) {
+        return rejectsDirectory.resolve(tenantId + "-" + importId + "-rejected.ndjson");
+    }
+
+    private static String key(String tenantId, String importId) {
+        return tenantId + ":" + importId;
+    }
+
+    /**
+     * Creates the rejects file on the first rejected row, so that clean imports leave nothing behind.
+     */
+    private static class RejectedRowWriter implements Closeable {
+
+        private final Path file;
+        private BufferedWriter writer;
+
+        RejectedRowWriter(Path file) {
+            this.file = file;
+        }
+
+        void write(ContactRow row, String error) throws IOException {
+            if (writer == null) {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("line", row.line());
+            entry.put("error", error);
+            entry.put("row", row.raw());
+            writer.write(OBJECT_MAPPER.writeValueAsString(entry));
+            writer.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
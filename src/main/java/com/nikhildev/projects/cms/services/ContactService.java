@@ -3,23 +3,45 @@ package com.nikhildev.projects.cms.services;
 import com.nikhildev.projects.cms.config.TenantContext;
 import com.nikhildev.projects.cms.exceptions.ResourceAlreadyExistsException;
 import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
+import com.nikhildev.projects.cms.models.BulkCategoryResult;
 import com.nikhildev.projects.cms.models.Category;
 import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.ContactBatchResult;
 import com.nikhildev.projects.cms.models.PagedResponse;
 import com.nikhildev.projects.cms.repositories.CategoryRepository;
 import com.nikhildev.projects.cms.repositories.ContactRepository;
+import com.nikhildev.projects.cms.repositories.ContactRepositoryCustom;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import com.nikhildev.projects.cms.search.SearchNormalizer;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
 
 @Service
 public class ContactService {
@@ -28,64 +50,124 @@ public class ContactService {
 
     private final ContactRepository contactRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final TenantContext tenantContext;
+    private final PhoneNormalizer phoneNormalizer;
+    private final boolean estimatedCount;
+    private final int maxBatchSize;
 
     @Autowired
     public ContactService(ContactRepository contactRepository,
                           CategoryRepository categoryRepository,
-                          TenantContext tenantContext) {
+                          CategoryCache categoryCache,
+                          TenantContext tenantContext,
+                          PhoneNormalizer phoneNormalizer,
+                          @Value("${cms.pagination.estimated-count:false}") boolean estimatedCount,
+                          @Value("${cms.batch.max-size:1000}") int maxBatchSize) {
         this.contactRepository = contactRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
         this.tenantContext = tenantContext;
+        this.phoneNormalizer = phoneNormalizer;
+        this.estimatedCount = estimatedCount;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * @param selectedFields the requested GraphQL fields of Contact, used to load only the document fields they
+     *                       need; null loads whole documents
+     */
     public PagedResponse<Contact> getAllContacts(
             String contactName, String phone, String categoryName,
-            int page, int size, String sortBy, Sort.Direction sortOrder) {
+            int page, int size, String sortBy, Sort.Direction sortOrder, boolean countTotal,
+            Collection<String> selectedFields) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Fetching contacts with filters - name: {}, phone: {}, categoryName: {}, page: {}",
                 tenantId, contactName, phone, categoryName, page);
         Sort sort = Sort.by(sortOrder, sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Contact> contacts;
-        if (contactName != null && !contactName.isEmpty()) {
+        Criteria criteria;
+        LongSupplier totalQuery;
+        if (SearchNormalizer.hasTokens(contactName)) {
             logger.debug("[Tenant: {}] Searching contacts by name: {}", tenantId, contactName);
-            contacts = contactRepository.findByContactNameContainingIgnoreCase(contactName, pageable);
-        } else if (phone != null && !phone.isEmpty()) {
+            List<Pattern> namePrefixes = SearchNormalizer.prefixPatterns(contactName);
+            criteria = Criteria.where("nameTokens").all(namePrefixes);
+            totalQuery = () -> contactRepository.countByNameTokenPrefixes(namePrefixes);
+        } else if (PhoneNormalizer.hasDigits(phone)) {
             logger.debug("[Tenant: {}] Searching contacts by phone: {}", tenantId, phone);
-            contacts = contactRepository.findByPhoneContaining(phone, pageable);
+            Pattern phoneSuffix = PhoneNormalizer.suffixPattern(phone);
+            criteria = Criteria.where("phoneDigitsReversed").regex(phoneSuffix);
+            totalQuery = () -> contactRepository.countByPhoneSuffix(phoneSuffix);
         } else if (categoryName != null && !categoryName.isEmpty()) {
             logger.debug("[Tenant: {}] Searching contacts by category name: {}", tenantId, categoryName);
-            List<Category> categories = categoryRepository.findByCategoryNameContainingIgnoreCase(categoryName);
-            if (categories.isEmpty()) {
+            List<String> categoryIds = categoryCache.findIdsByNameContaining(categoryName);
+            if (categoryIds.isEmpty()) {
                 return PagedResponse.fromPage(Page.empty(pageable));
             }
-            List<String> categoryIds = categories.stream().map(Category::getId).toList();
-            contacts = contactRepository.findByCategoryIdsInList(categoryIds, pageable);
+            criteria = Criteria.where("categoryIds").in(categoryIds);
+            totalQuery = () -> contactRepository.countByCategoryIdsInList(categoryIds);
         } else {
             logger.debug("[Tenant: {}] Fetching all contacts", tenantId);
-            contacts = contactRepository.findAll(pageable);
+            criteria = new Criteria();
+            totalQuery = estimatedCount ? contactRepository::estimatedCount : contactRepository::count;
         }
-        logger.debug("[Tenant: {}] Found {} contacts", tenantId, contacts.getTotalElements());
-        return PagedResponse.fromPage(contacts);
+        Slice<Contact> contacts = contactRepository.findSlice(criteria, pageable, contactProjection(selectedFields));
+        logger.debug("[Tenant: {}] Found {} contacts", tenantId, contacts.getNumberOfElements());
+        return PagedResponse.fromSlice(contacts, countTotal, totalQuery);
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllContacts}: the position encodes the sort key and id of the
+     * last returned contact, so every window is an index range query regardless of how deep it is.
+     */
+    public Window<Contact> getContactsWindow(
+            String contactName, String phone, String categoryName,
+            ScrollPosition position, int limit, String sortBy, Sort.Direction sortOrder) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Scrolling contacts with filters - name: {}, phone: {}, categoryName: {}, limit: {}",
+                tenantId, contactName, phone, categoryName, limit);
+        Sort sort = Sort.by(sortOrder, sortBy);
+        Window<Contact> contacts;
+        if (SearchNormalizer.hasTokens(contactName)) {
+            contacts = contactRepository.findByNameTokenPrefixes(
+                    SearchNormalizer.prefixPatterns(contactName), position, sort, Limit.of(limit));
+        } else if (PhoneNormalizer.hasDigits(phone)) {
+            contacts = contactRepository.findByPhoneSuffix(
+                    PhoneNormalizer.suffixPattern(phone), position, sort, Limit.of(limit));
+        } else if (StringUtils.hasText(categoryName)) {
+            List<String> categoryIds = categoryCache.findIdsByNameContaining(categoryName);
+            if (categoryIds.isEmpty()) {
+                return Window.from(List.of(), ScrollPosition::offset);
+            }
+            contacts = contactRepository.findByCategoryIdsIn(categoryIds, position, sort, Limit.of(limit));
+        } else {
+            contacts = contactRepository.findAllBy(position, sort, Limit.of(limit));
+        }
+        logger.debug("[Tenant: {}] Scrolled {} contacts", tenantId, contacts.size());
+        return contacts;
     }
 
     public Contact createContact(Contact contact) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Creating new contact with phone: {}", tenantId, contact.getPhone());
-        Optional<Contact> existingContact = contactRepository.findByPhone(contact.getPhone());
+        String phoneDigits = phoneNormalizer.canonicalize(contact.getPhone());
+        if (!StringUtils.hasText(phoneDigits)) {
+            logger.error("[Tenant: {}] Invalid phone number: {}", tenantId, contact.getPhone());
+            throw new IllegalArgumentException("Invalid phone number: " + contact.getPhone());
+        }
+        contact.applyPhoneDigits(phoneDigits);
+        Optional<Contact> existingContact = contactRepository.findByPhoneDigits(contact.getPhoneDigits());
         if (existingContact.isPresent()) {
             logger.error("[Tenant: {}] Contact already exists with phone: {}", tenantId, contact.getPhone());
             throw new ResourceAlreadyExistsException("Contact with phone number " + contact.getPhone() + " already exists");
         }
+        contact.refreshSearchFields();
         // Validate category IDs if provided
         if (contact.getCategoryIds() != null && !contact.getCategoryIds().isEmpty()) {
             List<String> categoryIds = contact.getCategoryIds();
-            for (String categoryId : categoryIds) {
-                if (!categoryRepository.existsById(categoryId)) {
-                    logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
-                    throw new ResourceNotFoundException("Category not found with id: " + categoryId);
-                }
+            for (String categoryId : findMissingCategoryIds(categoryIds)) {
+                logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
+                throw new ResourceNotFoundException("Category not found with id: " + categoryId);
             }
             logger.debug("[Tenant: {}] Assigning {} categories to new contact", tenantId, categoryIds.size());
         }
@@ -105,10 +187,14 @@ public class ContactService {
         logger.debug("[Tenant: {}] Updating contact with ID: {}", tenantId, id);
         Contact existingContact = findContactById(id);
         // Check if phone is being updated and if it already exists
-        if (contactDetails.getPhone() != null &&
-                !existingContact.getPhone().equals(contactDetails.getPhone())) {
+        String phoneDigits = phoneNormalizer.canonicalize(contactDetails.getPhone());
+        if (phoneDigits != null && !StringUtils.hasText(phoneDigits)) {
+            logger.error("[Tenant: {}] Invalid phone number: {}", tenantId, contactDetails.getPhone());
+            throw new IllegalArgumentException("Invalid phone number: " + contactDetails.getPhone());
+        }
+        if (phoneDigits != null && !phoneDigits.equals(existingContact.getPhoneDigits())) {
             logger.debug("[Tenant: {}] Updating phone number for contact: {}", tenantId, id);
-            Optional<Contact> contactWithPhone = contactRepository.findByPhone(contactDetails.getPhone());
+            Optional<Contact> contactWithPhone = contactRepository.findByPhoneDigits(phoneDigits);
             if (contactWithPhone.isPresent() && !contactWithPhone.get().getId().equals(id)) {
                 logger.error("[Tenant: {}] Phone number already exists: {}", tenantId, contactDetails.getPhone());
                 throw new ResourceAlreadyExistsException("Contact with phone number " +
@@ -116,15 +202,15 @@ public class ContactService {
             }
         }
         if (contactDetails.getCategoryIds() != null && !contactDetails.getCategoryIds().isEmpty()) {
-            for (String categoryId : contactDetails.getCategoryIds()) {
-                if (!categoryRepository.existsById(categoryId)) {
-                    logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
-                    throw new ResourceNotFoundException("Category not found with id: " + categoryId);
-                }
+            for (String categoryId : findMissingCategoryIds(contactDetails.getCategoryIds())) {
+                logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
+                throw new ResourceNotFoundException("Category not found with id: " + categoryId);
             }
             logger.debug("[Tenant: {}] Updating categories for contact: {}", tenantId, id);
         }
         existingContact.updateFrom(contactDetails);
+        existingContact.refreshSearchFields();
+        existingContact.applyPhoneDigits(phoneNormalizer.canonicalize(existingContact.getPhone()));
         Contact updatedContact = contactRepository.save(existingContact);
         logger.info("[Tenant: {}] Updated contact with ID: {}", tenantId, id);
         return updatedContact;
@@ -146,7 +232,8 @@ public class ContactService {
             String contactId,
             String categoryName,
             int page, int pageSize,
-            String sortBy, Sort.Direction sortOrder
+            String sortBy, Sort.Direction sortOrder,
+            boolean countTotal
     ) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Fetching categories for contact: {}, name filter: {}, page: {}",
@@ -158,55 +245,322 @@ public class ContactService {
             return PagedResponse.fromPage(Page.empty());
         }
         Pageable pageable = PageRequest.of(page, pageSize, Sort.by(sortOrder, sortBy));
-        Page<Category> categoriesPage;
+        Slice<Category> categoriesSlice;
+        LongSupplier totalQuery;
         if (StringUtils.hasText(categoryName)) {
             logger.debug("[Tenant: {}] Searching categories by name: {} for contact: {}", tenantId, categoryName, contactId);
-            categoriesPage = categoryRepository
+            categoriesSlice = categoryRepository
                     .findByIdInAndCategoryNameContainingIgnoreCase(
                             categoryIds, categoryName, pageable);
+            totalQuery = () -> categoryRepository.countByIdInAndCategoryNameContainingIgnoreCase(categoryIds, categoryName);
         } else {
             logger.debug("[Tenant: {}] Fetching all categories for contact: {}", tenantId, contactId);
-            categoriesPage = categoryRepository
+            categoriesSlice = categoryRepository
                     .findByIdIn(categoryIds, pageable);
+            totalQuery = () -> categoryRepository.countByIdIn(categoryIds);
         }
-        logger.debug("[Tenant: {}] Found {} categories for contact {}", tenantId, categoriesPage.getTotalElements(), contactId);
-        return PagedResponse.fromPage(categoriesPage);
+        logger.debug("[Tenant: {}] Found {} categories for contact {}", tenantId, categoriesSlice.getNumberOfElements(), contactId);
+        return PagedResponse.fromSlice(categoriesSlice, countTotal, totalQuery);
+    }
+
+    /**
+     * Batched variant of {@link #getContactCategories} used by the Contact.categories DataLoader.
+     * Loads the categories of all given contacts with one query and pages each contact's list in memory.
+     *
+     * @param contactCategoryIds the category ids of each contact
+     * @return the page of categories for each of the given category id lists
+     */
+    public Map<List<String>, PagedResponse<Category>> getCategoriesForContacts(
+            Collection<List<String>> contactCategoryIds,
+            String categoryName,
+            int page, int pageSize,
+            String sortBy, Sort.Direction sortOrder
+    ) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Fetching categories for {} contacts, name filter: {}, page: {}",
+                tenantId, contactCategoryIds.size(), categoryName, page);
+        Sort sort = Sort.by(sortOrder, sortBy);
+        Pageable pageable = PageRequest.of(page, pageSize, sort);
+        Set<String> categoryIds = new HashSet<>();
+        contactCategoryIds.forEach(categoryIds::addAll);
+        List<Category> categories;
+        if (categoryIds.isEmpty()) {
+            categories = List.of();
+        } else if (StringUtils.hasText(categoryName)) {
+            categories = categoryRepository.findByIdInAndCategoryNameContainingIgnoreCase(categoryIds, categoryName, sort);
+        } else {
+            categories = categoryRepository.findByIdIn(categoryIds, sort);
+        }
+        Map<List<String>, PagedResponse<Category>> categoriesByContact = new HashMap<>();
+        for (List<String> ids : contactCategoryIds) {
+            Set<String> contactCategoryIdSet = new HashSet<>(ids);
+            List<Category> contactCategories = categories.stream()
+                    .filter(category -> contactCategoryIdSet.contains(category.getId()))
+                    .toList();
+            categoriesByContact.put(ids, PagedResponse.fromList(contactCategories, pageable));
+        }
+        logger.debug("[Tenant: {}] Loaded {} distinct categories for {} contacts", tenantId, categories.size(),
+                contactCategoryIds.size());
+        return categoriesByContact;
     }
 
     public Contact addCategoryToContact(String contactId, String categoryId) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Adding category {} to contact {}", tenantId, categoryId, contactId);
-        Contact contact = getContactById(contactId);
-        categoryRepository.findById(categoryId)
-                .orElseThrow(() -> {
-                    logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
-                    return new ResourceNotFoundException("Category not found");
-                });
-        boolean categoryExists = contact.getCategoryIds().contains(categoryId);
-        if (!categoryExists) {
-            contact.getCategoryIds().add(categoryId);
-            contact = contactRepository.save(contact);
-            logger.info("[Tenant: {}] Added category {} to contact {}", tenantId, categoryId, contactId);
-        } else {
+        if (!findMissingCategoryIds(List.of(categoryId)).isEmpty()) {
+            logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
+            throw new ResourceNotFoundException("Category not found");
+        }
+        Contact contact = contactRepository.addCategoryIfAbsent(contactId, categoryId);
+        if (contact == null) {
+            // Nothing matched: either the contact is missing (throws) or it already has the category
+            findContactById(contactId);
             logger.debug("[Tenant: {}] Category {} already assigned to contact {}", tenantId, categoryId, contactId);
             throw new ResourceAlreadyExistsException("Category already assigned to contact");
         }
+        logger.info("[Tenant: {}] Added category {} to contact {}", tenantId, categoryId, contactId);
         return contact;
     }
 
     public void removeCategoryFromContact(String contactId, String categoryId) {
         String tenantId = tenantContext.getTenantId();
         logger.debug("[Tenant: {}] Removing category {} from contact {}", tenantId, categoryId, contactId);
-        Contact contact = getContactById(contactId);
-        boolean removed = contact.getCategoryIds().remove(categoryId);
-        if (!removed) {
+        if (!contactRepository.removeCategory(contactId, categoryId)) {
+            findContactById(contactId);
             logger.error("[Tenant: {}] Category {} not associated with contact {}", tenantId, categoryId, contactId);
             throw new ResourceNotFoundException("Category not associated with this contact");
         }
-        contactRepository.save(contact);
         logger.info("[Tenant: {}] Removed category {} from contact {}", tenantId, categoryId, contactId);
     }
 
+    /**
+     * Batch variant of {@link #createContact}: phones and category ids of the whole batch are validated with
+     * one query each and the valid contacts are inserted with a single unordered bulk write. Invalid contacts
+     * are reported per item instead of failing the batch.
+     */
+    public ContactBatchResult createContacts(List<Contact> contacts) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Creating batch of {} contacts", tenantId, contacts.size());
+        checkBatchSize(contacts.size());
+        String[] errors = new String[contacts.size()];
+        Map<String, Integer> indexByPhoneDigits = new HashMap<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            String phoneDigits = phoneNormalizer.canonicalize(contact.getPhone());
+            if (!StringUtils.hasText(phoneDigits)) {
+                errors[i] = "Invalid phone number: " + contact.getPhone();
+            } else if (indexByPhoneDigits.putIfAbsent(phoneDigits, i) != null) {
+                errors[i] = "Contact with phone number " + contact.getPhone() + " appears more than once in the batch";
+            } else {
+                contact.applyPhoneDigits(phoneDigits);
+            }
+        }
+        if (!indexByPhoneDigits.isEmpty()) {
+            for (Contact existing : contactRepository.findPhoneDigitsIn(indexByPhoneDigits.keySet())) {
+                int index = indexByPhoneDigits.get(existing.getPhoneDigits());
+                errors[index] = "Contact with phone number " + contacts.get(index).getPhone() + " already exists";
+            }
+        }
+        rejectMissingCategories(contacts, errors);
+
+        List<Contact> inserts = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            if (errors[i] == null) {
+                Contact contact = contacts.get(i);
+                // Ids and versions are assigned up front because bulk inserts do not populate them
+                contact.setId(new ObjectId().toHexString());
+                contact.setVersion(0L);
+                contact.refreshSearchFields();
+                inserts.add(contact);
+                insertIndexes.add(i);
+            }
+        }
+        for (ContactRepositoryCustom.BulkFailure failure : contactRepository.insertUnordered(inserts)) {
+            int index = insertIndexes.get(failure.index());
+            errors[index] = failureMessage(failure, contacts.get(index));
+        }
+        ContactBatchResult result = ContactBatchResult.of(contacts, errors);
+        logger.info("[Tenant: {}] Created {} contacts in batch, {} failed", tenantId, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Batch variant of {@link #updateContact}: the contacts, the changed phones and the category ids of the
+     * whole batch are each checked with one query, and the changes are written with one unordered bulk write of
+     * version-checked updates. Invalid or concurrently modified contacts are reported per item. A phone number
+     * cannot move between two contacts of the same batch, e.g. when they swap numbers, since the updates apply
+     * in no particular order; such moves are rejected and must be split across batches.
+     */
+    public ContactBatchResult updateContacts(List<Contact> contactDetails) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Updating batch of {} contacts", tenantId, contactDetails.size());
+        checkBatchSize(contactDetails.size());
+        String[] errors = new String[contactDetails.size()];
+        Map<String, Contact> existingById = new HashMap<>();
+        contactRepository.findAllById(contactDetails.stream().map(Contact::getId).filter(Objects::nonNull).toList())
+                .forEach(contact -> existingById.put(contact.getId(), contact));
+        Set<String> seenIds = new HashSet<>();
+        Map<String, Integer> indexByPhoneDigits = new HashMap<>();
+        for (int i = 0; i < contactDetails.size(); i++) {
+            Contact details = contactDetails.get(i);
+            Contact existing = existingById.get(details.getId());
+            if (existing == null) {
+                errors[i] = "Contact not found with id: " + details.getId();
+            } else if (!seenIds.add(details.getId())) {
+                errors[i] = "Contact " + details.getId() + " appears more than once in the batch";
+            } else if (details.getPhone() != null) {
+                String phoneDigits = phoneNormalizer.canonicalize(details.getPhone());
+                if (!StringUtils.hasText(phoneDigits)) {
+                    errors[i] = "Invalid phone number: " + details.getPhone();
+                } else if (!phoneDigits.equals(existing.getPhoneDigits())
+                        && indexByPhoneDigits.putIfAbsent(phoneDigits, i) != null) {
+                    errors[i] = "Contact with phone number " + details.getPhone() + " appears more than once in the batch";
+                }
+            }
+        }
+        if (!indexByPhoneDigits.isEmpty()) {
+            for (Contact withPhone : contactRepository.findPhoneDigitsIn(indexByPhoneDigits.keySet())) {
+                int index = indexByPhoneDigits.get(withPhone.getPhoneDigits());
+                if (withPhone.getId().equals(contactDetails.get(index).getId())) {
+                    continue;
+                }
+                errors[index] = seenIds.contains(withPhone.getId())
+                        ? "Phone number " + contactDetails.get(index).getPhone() + " still belongs to contact "
+                                + withPhone.getId() + " of this batch; move it in a separate batch"
+                        : "Contact with phone number " + contactDetails.get(index).getPhone() + " already exists";
+            }
+        }
+        rejectMissingCategories(contactDetails, errors);
+
+        List<Contact> updates = new ArrayList<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        for (int i = 0; i < contactDetails.size(); i++) {
+            if (errors[i] == null) {
+                Contact contact = existingById.get(contactDetails.get(i).getId());
+                contact.updateFrom(contactDetails.get(i));
+                contact.refreshSearchFields();
+                contact.applyPhoneDigits(phoneNormalizer.canonicalize(contact.getPhone()));
+                updates.add(contact);
+                updateIndexes.add(i);
+            }
+        }
+        for (ContactRepositoryCustom.BulkFailure failure : contactRepository.updateUnordered(updates)) {
+            int index = updateIndexes.get(failure.index());
+            errors[index] = failureMessage(failure, contactDetails.get(index));
+        }
+        List<Contact> updated = contactDetails.stream()
+                .map(details -> existingById.get(details.getId()))
+                .toList();
+        ContactBatchResult result = ContactBatchResult.of(updated, errors);
+        logger.info("[Tenant: {}] Updated {} contacts in batch, {} failed", tenantId, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    public BulkCategoryResult bulkAssignCategory(List<String> contactIds, String categoryId) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Assigning category {} to {} contacts", tenantId, categoryId, contactIds.size());
+        checkBatchSize(contactIds.size());
+        if (!findMissingCategoryIds(List.of(categoryId)).isEmpty()) {
+            logger.error("[Tenant: {}] Category not found with ID: {}", tenantId, categoryId);
+            throw new ResourceNotFoundException("Category not found");
+        }
+        Set<String> requestedIds = new LinkedHashSet<>(contactIds);
+        Set<String> existingIds = contactRepository.findExistingIds(requestedIds);
+        long modified = existingIds.isEmpty() ? 0 : contactRepository.addCategoryToContacts(existingIds, categoryId);
+        List<String> missingIds = requestedIds.stream().filter(id -> !existingIds.contains(id)).toList();
+        logger.info("[Tenant: {}] Assigned category {} to {} contacts, {} not found", tenantId, categoryId, modified, missingIds.size());
+        return new BulkCategoryResult(categoryId, requestedIds.size(), modified, missingIds);
+    }
+
+    public BulkCategoryResult bulkRemoveCategory(List<String> contactIds, String categoryId) {
+        String tenantId = tenantContext.getTenantId();
+        logger.debug("[Tenant: {}] Removing category {} from {} contacts", tenantId, categoryId, contactIds.size());
+        checkBatchSize(contactIds.size());
+        Set<String> requestedIds = new LinkedHashSet<>(contactIds);
+        Set<String> existingIds = contactRepository.findExistingIds(requestedIds);
+        long modified = existingIds.isEmpty() ? 0 : contactRepository.removeCategoryFromContacts(existingIds, categoryId);
+        List<String> missingIds = requestedIds.stream().filter(id -> !existingIds.contains(id)).toList();
+        logger.info("[Tenant: {}] Removed category {} from {} contacts, {} not found", tenantId, categoryId, modified, missingIds.size());
+        return new BulkCategoryResult(categoryId, requestedIds.size(), modified, missingIds);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + size + " items exceeds the maximum of " + maxBatchSize);
+        }
+    }
+
+    /**
+     * Marks the items that reference unknown categories, checking all category ids of the batch at once.
+     */
+    private void rejectMissingCategories(List<Contact> contacts, String[] errors) {
+        Set<String> categoryIds = new HashSet<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            if (errors[i] == null && contacts.get(i).getCategoryIds() != null) {
+                categoryIds.addAll(contacts.get(i).getCategoryIds());
+            }
+        }
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        Set<String> missingIds = findMissingCategoryIds(categoryIds);
+        if (missingIds.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < contacts.size(); i++) {
+            if (errors[i] == null && contacts.get(i).getCategoryIds() != null) {
+                for (String categoryId : contacts.get(i).getCategoryIds()) {
+                    if (missingIds.contains(categoryId)) {
+                        errors[i] = "Category not found with id: " + categoryId;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks category ids against the database rather than {@link CategoryCache}, which may not have seen
+     * categories created or deleted on other nodes yet; assigning a deleted category would leave a dangling id.
+     *
+     * @return the given ids that do not belong to a category, in their original order
+     */
+    private Set<String> findMissingCategoryIds(Collection<String> categoryIds) {
+        Set<String> existingIds = categoryRepository.findExistingIds(categoryIds);
+        Set<String> missingIds = new LinkedHashSet<>(categoryIds);
+        missingIds.removeAll(existingIds);
+        return missingIds;
+    }
+
+    private static String failureMessage(ContactRepositoryCustom.BulkFailure failure, Contact contact) {
+        return switch (failure.reason()) {
+            case DUPLICATE_KEY -> "Contact with phone number " + contact.getPhone() + " already exists";
+            case VERSION_CONFLICT -> "Concurrent modification: the contact was changed by another request, please retry";
+            case WRITE_ERROR -> "Write failed: " + failure.message();
+        };
+    }
+
+    /**
+     * Maps requested GraphQL Contact fields to the document fields backing them; categories resolve from
+     * categoryIds and the id is always loaded.
+     */
+    private static Set<String> contactProjection(Collection<String> selectedFields) {
+        if (selectedFields == null) {
+            return null;
+        }
+        Set<String> fields = new HashSet<>();
+        for (String selectedField : selectedFields) {
+            switch (selectedField) {
+                case "contactName", "phone", "email" -> fields.add(selectedField);
+                case "categories" -> fields.add("categoryIds");
+                default -> {
+                }
+            }
+        }
+        return fields;
+    }
+
     private Contact findContactById(String id) {
         String tenantId = tenantContext.getTenantId();
         return contactRepository.findById(id)
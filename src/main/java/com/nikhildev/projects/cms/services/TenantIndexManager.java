@@ -0,0 +1,229 @@
+package com.nikhildev.projects.cms.services;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.config.TenantDatabases;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.Tenant;
+import com.mongodb.client.MongoClient;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates and verifies the indexes declared on the document models in each tenant database. Index
+ * annotations are not applied automatically because repositories are routed to the tenant database
+ * at runtime, so provisioning and drift detection happen here instead. In the shared collections every
+ * declared index is preceded by the tenant id, so each tenant's queries stay index-bound and unique
+ * constraints hold per tenant.
+ */
+@Service
+public class TenantIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantIndexManager.class);
+
+    // Sort-supporting indexes that cannot be declared with @Indexed on a single field
+    private static final List<IndexDefinition> CONTACT_COMPOUND_INDEXES = List.of(
+            new CompoundIndexDefinition(new Document("categoryIds", 1).append("contactName", 1))
+                    .named("categoryIds_contactName"),
+            new CompoundIndexDefinition(new Document("contactName", 1).append("_id", 1))
+                    .named("contactName_id"));
+
+    // Indexes over fields the models no longer store; they only slow down writes, so they are dropped
+    private static final List<Document> CONTACT_OBSOLETE_INDEXES = List.of(new Document("searchName", 1));
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoTemplate sharedTemplate;
+    private final TenantContext tenantContext;
+    private final TenantDatabases tenantDatabases;
+    private final MongoPersistentEntityIndexResolver indexResolver;
+
+    @Autowired
+    public TenantIndexManager(MongoTemplate mongoTemplate, MongoClient mongoClient,
+                              TenantContext tenantContext, TenantDatabases tenantDatabases) {
+        this.mongoTemplate = mongoTemplate;
+        this.sharedTemplate = new MongoTemplate(
+                new SimpleMongoClientDatabaseFactory(mongoClient, tenantDatabases.getSharedDatabaseName()),
+                mongoTemplate.getConverter());
+        this.tenantContext = tenantContext;
+        this.tenantDatabases = tenantDatabases;
+        this.indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+    }
+
+    public IndexReport ensureTenantIndexes(String tenantId) {
+        if (tenantDatabases.isShared(tenantId)) {
+            return ensureSharedIndexes();
+        }
+        return tenantContext.callAsTenant(tenantId, () -> {
+            IndexReport report = new IndexReport(mongoTemplate.getDb().getName());
+            ensureIndexes(mongoTemplate, Contact.class, CONTACT_COMPOUND_INDEXES, CONTACT_OBSOLETE_INDEXES, false, report);
+            ensureIndexes(mongoTemplate, Category.class, List.of(), List.of(), false, report);
+            logReport(report);
+            return report;
+        });
+    }
+
+    /**
+     * Ensures the tenant-prefixed indexes of the collections shared by tenants with shared storage.
+     */
+    public IndexReport ensureSharedIndexes() {
+        IndexReport report = new IndexReport(sharedTemplate.getDb().getName());
+        ensureIndexes(sharedTemplate, Contact.class, CONTACT_COMPOUND_INDEXES, CONTACT_OBSOLETE_INDEXES, true, report);
+        ensureIndexes(sharedTemplate, Category.class, List.of(), List.of(), true, report);
+        logReport(report);
+        return report;
+    }
+
+    /**
+     * Ensures the indexes of the shared collections stored in the default database, such as tenants.
+     */
+    public IndexReport ensureDefaultIndexes() {
+        return tenantContext.callAsTenant(null, () -> {
+            IndexReport report = new IndexReport(mongoTemplate.getDb().getName());
+            ensureIndexes(mongoTemplate, Tenant.class, List.of(), List.of(), false, report);
+            logReport(report);
+            return report;
+        });
+    }
+
+    private void ensureIndexes(MongoTemplate template, Class<?> entityClass, List<IndexDefinition> additionalIndexes,
+                               List<Document> obsoleteIndexes, boolean tenantPrefixed, IndexReport report) {
+        String collection = template.getCollectionName(entityClass);
+        IndexOperations indexOperations = template.indexOps(entityClass);
+        List<IndexDefinition> declared = new ArrayList<>();
+        indexResolver.resolveIndexFor(TypeInformation.of(entityClass))
+                .forEach(holder -> declared.add(holder.getIndexDefinition()));
+        declared.addAll(additionalIndexes);
+        if (tenantPrefixed) {
+            declared.replaceAll(TenantIndexManager::tenantPrefixed);
+        }
+        Set<String> obsoleteKeys = new HashSet<>();
+        for (Document keys : obsoleteIndexes) {
+            Document prefixed = tenantPrefixed ? new Document(TenantDatabases.TENANT_ID_FIELD, 1) : new Document();
+            prefixed.putAll(keys);
+            obsoleteKeys.add(prefixed.toJson());
+        }
+
+        Set<String> existingKeys = new HashSet<>();
+        List<IndexInfo> existingIndexes = indexOperations.getIndexInfo();
+        existingIndexes.forEach(index -> existingKeys.add(keysOf(index)));
+        Set<String> declaredKeys = new HashSet<>();
+        for (IndexDefinition definition : declared) {
+            String keys = definition.getIndexKeys().toJson();
+            declaredKeys.add(keys);
+            if (!existingKeys.contains(keys)) {
+                try {
+                    indexOperations.ensureIndex(definition);
+                    report.created().add(collection + " " + keys);
+                } catch (DataAccessException e) {
+                    // e.g. a unique index over legacy duplicates; the remaining indexes are still created
+                    logger.error("[{}] Failed to create index {} on {}: {}",
+                            report.database(), keys, collection, e.getMessage());
+                    report.failed().add(collection + " " + keys);
+                }
+            }
+        }
+        for (IndexInfo index : existingIndexes) {
+            String keys = keysOf(index);
+            if (obsoleteKeys.contains(keys)) {
+                try {
+                    indexOperations.dropIndex(index.getName());
+                    report.dropped().add(collection + " " + index.getName());
+                } catch (DataAccessException e) {
+                    logger.error("[{}] Failed to drop obsolete index {} on {}: {}",
+                            report.database(), index.getName(), collection, e.getMessage());
+                    report.failed().add(collection + " " + index.getName());
+                }
+            } else if (!"_id_".equals(index.getName()) && !declaredKeys.contains(keys)) {
+                report.unexpected().add(collection + " " + index.getName());
+            }
+        }
+    }
+
+    /**
+     * Puts the tenant id in front of the keys of the given index. A sparse index would no longer skip documents
+     * without the indexed fields once the always-present tenant id is part of it, so sparseness becomes a
+     * partial filter on the original fields.
+     */
+    private static IndexDefinition tenantPrefixed(IndexDefinition definition) {
+        Document keys = new Document(TenantDatabases.TENANT_ID_FIELD, 1);
+        keys.putAll(definition.getIndexKeys());
+        Document options = new Document(definition.getIndexOptions());
+        if (Boolean.TRUE.equals(options.remove("sparse"))) {
+            Document partialFilter = new Document();
+            definition.getIndexKeys().keySet()
+                    .forEach(field -> partialFilter.append(field, new Document("$exists", true)));
+            options.append("partialFilterExpression", partialFilter);
+        }
+        return new TenantPrefixedIndex(keys, options);
+    }
+
+    private static String keysOf(IndexInfo index) {
+        Document keys = new Document();
+        for (IndexField field : index.getIndexFields()) {
+            keys.append(field.getKey(), field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+        }
+        return keys.toJson();
+    }
+
+    private static void logReport(IndexReport report) {
+        if (!report.created().isEmpty()) {
+            logger.warn("[{}] Created missing indexes: {}", report.database(), report.created());
+        }
+        if (!report.dropped().isEmpty()) {
+            logger.warn("[{}] Dropped obsolete indexes: {}", report.database(), report.dropped());
+        }
+        if (!report.failed().isEmpty()) {
+            logger.error("[{}] Could not create or drop indexes: {}", report.database(), report.failed());
+        }
+        if (!report.unexpected().isEmpty()) {
+            logger.warn("[{}] Found undeclared indexes: {}", report.database(), report.unexpected());
+        }
+        if (!report.hasDrift()) {
+            logger.debug("[{}] All declared indexes present", report.database());
+        }
+    }
+
+    private record TenantPrefixedIndex(Document keys, Document options) implements IndexDefinition {
+
+        @Override
+        public Document getIndexKeys() {
+            return keys;
+        }
+
+        @Override
+        public Document getIndexOptions() {
+            return options;
+        }
+    }
+
+    public record IndexReport(String database, List<String> created, List<String> dropped, List<String> failed,
+                              List<String> unexpected) {
+
+        public IndexReport(String database) {
+            this(database, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        public boolean hasDrift() {
+            return !created.isEmpty() || !dropped.isEmpty() || !failed.isEmpty() || !unexpected.isEmpty();
+        }
+    }
+}
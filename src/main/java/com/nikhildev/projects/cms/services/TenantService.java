@@ -1,22 +1,30 @@
 package com.nikhildev.projects.cms.services;
 
+import com.nikhildev.projects.cms.config.CredentialCache;
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.config.TenantDatabases;
 import com.nikhildev.projects.cms.exceptions.ResourceAlreadyExistsException;
 import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
 import com.nikhildev.projects.cms.models.PagedResponse;
 import com.nikhildev.projects.cms.models.Tenant;
 import com.nikhildev.projects.cms.repositories.TenantRepository;
-import com.mongodb.client.MongoClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.function.LongSupplier;
+
 @Service
 public class TenantService {
 
@@ -24,30 +32,61 @@ public class TenantService {
     private static final String MASTER_DB = "master";
 
     private final TenantRepository tenantRepository;
-    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+    private final TenantContext tenantContext;
+    private final TenantDatabases tenantDatabases;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final CredentialCache credentialCache;
+    private final CategoryCache categoryCache;
+    private final TenantIndexManager tenantIndexManager;
+    private final Tenant.Storage defaultStorage;
 
     @Autowired
     public TenantService(TenantRepository tenantRepository,
-                         MongoClient mongoClient,
-                         BCryptPasswordEncoder passwordEncoder) {
+                         MongoTemplate mongoTemplate,
+                         TenantContext tenantContext,
+                         TenantDatabases tenantDatabases,
+                         BCryptPasswordEncoder passwordEncoder,
+                         CredentialCache credentialCache,
+                         CategoryCache categoryCache,
+                         TenantIndexManager tenantIndexManager,
+                         @Value("${cms.tenancy.default-storage:DATABASE}") Tenant.Storage defaultStorage) {
         this.tenantRepository = tenantRepository;
-        this.mongoClient = mongoClient;
+        this.mongoTemplate = mongoTemplate;
+        this.tenantContext = tenantContext;
+        this.tenantDatabases = tenantDatabases;
         this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
+        this.categoryCache = categoryCache;
+        this.tenantIndexManager = tenantIndexManager;
+        this.defaultStorage = defaultStorage;
     }
 
 
     public PagedResponse<Tenant> getAllTenants(String name, int page, int size,
-                                               String sortBy, Sort.Direction sortOrder) {
+                                               String sortBy, Sort.Direction sortOrder, boolean countTotal) {
         logger.debug("Fetching tenants with name filter: {}, page: {}", name, page);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortOrder, sortBy));
-        Page<Tenant> tenantsPage;
+        Slice<Tenant> tenantsSlice;
+        LongSupplier totalQuery;
         if (name != null && !name.isEmpty()) {
-            tenantsPage = tenantRepository.findByNameContainingIgnoreCase(name, pageable);
+            tenantsSlice = tenantRepository.findByNameContainingIgnoreCase(name, pageable);
+            totalQuery = () -> tenantRepository.countByNameContainingIgnoreCase(name);
         } else {
-            tenantsPage = tenantRepository.findAll(pageable);
+            tenantsSlice = tenantRepository.findAllBy(pageable);
+            totalQuery = tenantRepository::count;
+        }
+        return PagedResponse.fromSlice(tenantsSlice, countTotal, totalQuery);
+    }
+
+    public Window<Tenant> getTenantsWindow(String name, ScrollPosition position, int limit,
+                                           String sortBy, Sort.Direction sortOrder) {
+        logger.debug("Scrolling tenants with name filter: {}, limit: {}", name, limit);
+        Sort sort = Sort.by(sortOrder, sortBy);
+        if (name != null && !name.isEmpty()) {
+            return tenantRepository.findByNameContainingIgnoreCase(name, position, sort, Limit.of(limit));
         }
-        return PagedResponse.fromPage(tenantsPage);
+        return tenantRepository.findAllBy(position, sort, Limit.of(limit));
     }
 
     public Tenant getTenantById(String tenantId) {
@@ -66,11 +105,13 @@ public class TenantService {
             throw new ResourceAlreadyExistsException("Username already exists: " + tenant.getUsername());
         }
         tenant.setPassword(passwordEncoder.encode(tenant.getPassword()));
+        boolean admin = "ADMIN".equalsIgnoreCase(tenant.getRole());
+        tenant.setStorage(admin ? null : tenant.getStorage() != null ? tenant.getStorage() : defaultStorage);
         Tenant savedTenant = tenantRepository.save(tenant);
         logger.info("Created tenant with ID: {}", savedTenant.getId());
-        if (!"ADMIN".equalsIgnoreCase(tenant.getRole())) {
-            String dbName = "tenant_" + savedTenant.getId();
-            initializeTenantDatabase(dbName);
+        if (!admin) {
+            initializeTenantDatabase(savedTenant.getId());
+            tenantIndexManager.ensureTenantIndexes(savedTenant.getId());
         }
         return savedTenant;
     }
@@ -89,7 +130,11 @@ public class TenantService {
         if (tenantDetails.getDescription() != null) {
             existingTenant.setDescription(tenantDetails.getDescription());
         }
+        if (tenantDetails.getQueryLimits() != null) {
+            existingTenant.setQueryLimits(tenantDetails.getQueryLimits());
+        }
         Tenant updatedTenant = tenantRepository.save(existingTenant);
+        credentialCache.evict(existingTenant.getUsername());
         logger.info("Updated tenant with ID: {}", tenantId);
         return updatedTenant;
     }
@@ -97,27 +142,31 @@ public class TenantService {
     public void deleteTenant(String tenantId) {
         logger.debug("Attempting to delete tenant with ID: {}", tenantId);
         Tenant tenant = getTenantById(tenantId);
-        String dbName = "tenant_" + tenantId;
-        dropTenantDatabase(dbName);
+        dropTenantData(tenant);
         tenantRepository.delete(tenant);
+        credentialCache.evict(tenant.getUsername());
+        categoryCache.invalidate(tenantId);
         logger.info("Deleted tenant with ID: {}", tenantId);
     }
 
-    private void initializeTenantDatabase(String dbName) {
-        logger.debug("Initializing tenant database: {}", dbName);
-        MongoTemplate tenantTemplate = new MongoTemplate(mongoClient, dbName);
-        if (!tenantTemplate.collectionExists("contacts")) {
-            tenantTemplate.createCollection("contacts");
-        }
-        if (!tenantTemplate.collectionExists("categories")) {
-            tenantTemplate.createCollection("categories");
-        }
-        logger.info("Initialized tenant database: {}", dbName);
+    private void initializeTenantDatabase(String tenantId) {
+        tenantContext.runAsTenant(tenantId, () -> {
+            String dbName = mongoTemplate.getDb().getName();
+            logger.debug("Initializing tenant database: {}", dbName);
+            if (!mongoTemplate.collectionExists("contacts")) {
+                mongoTemplate.createCollection("contacts");
+            }
+            if (!mongoTemplate.collectionExists("categories")) {
+                mongoTemplate.createCollection("categories");
+            }
+            logger.info("Initialized tenant database: {}", dbName);
+        });
     }
 
-    private void dropTenantDatabase(String dbName) {
-        logger.debug("Dropping tenant database: {}", dbName);
-        mongoClient.getDatabase(dbName).drop();
-        logger.info("Dropped tenant database: {}", dbName);
+    private void dropTenantData(Tenant tenant) {
+        Tenant.Storage storage = tenant.getStorage() != null ? tenant.getStorage() : Tenant.Storage.DATABASE;
+        logger.debug("[Tenant: {}] Dropping tenant data from {} storage", tenant.getId(), storage);
+        tenantDatabases.dropTenantData(tenant.getId(), storage);
+        logger.info("[Tenant: {}] Dropped tenant data from {} storage", tenant.getId(), storage);
     }
 }
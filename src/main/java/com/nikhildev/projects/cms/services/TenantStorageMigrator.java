@@ -0,0 +1,214 @@
+package com.nikhildev.projects.cms.services;
+
+import com.nikhildev.projects.cms.config.TenantDatabases;
+import com.nikhildev.projects.cms.exceptions.ResourceNotFoundException;
+import com.nikhildev.projects.cms.models.Tenant;
+import com.nikhildev.projects.cms.repositories.TenantRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves a tenant's contacts and categories between a database of its own and the shared collections. The
+ * tenant is first marked as migrating, which makes every node reject writes to its contacts and categories
+ * once its cached database handle expires, see {@link TenantDatabases#getTtl()}. After waiting that long the
+ * target is cleared, the documents are copied in batches and counted, and only then is the tenant switched to
+ * the new storage. The old copy is removed one handle lifetime later, when no node can still be reading it. A
+ * migration that fails part way leaves the tenant on its old storage, accepting writes again, and can simply
+ * be run again.
+ * <p>
+ * The waits alone take two handle lifetimes and the copy grows with the tenant, so migrations run one at a time
+ * on a thread of their own rather than on the request thread. {@link #migrate} returns the tenant marked as
+ * migrating; callers poll the tenant until it is no longer migrating and check which storage it ended up on.
+ */
+@Service
+public class TenantStorageMigrator implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantStorageMigrator.class);
+
+    private final TenantRepository tenantRepository;
+    private final TenantDatabases tenantDatabases;
+    private final TenantIndexManager tenantIndexManager;
+    private final CategoryCache categoryCache;
+    private final int batchSize;
+    private final Executor executor;
+    // Tenants with a migration queued or running on this node
+    private final Set<String> activeMigrations = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TenantStorageMigrator(TenantRepository tenantRepository,
+                                 TenantDatabases tenantDatabases,
+                                 TenantIndexManager tenantIndexManager,
+                                 CategoryCache categoryCache,
+                                 @Value("${cms.tenancy.migration.batch-size:1000}") int batchSize) {
+        this(tenantRepository, tenantDatabases, tenantIndexManager, categoryCache, batchSize,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "tenant-storage-migration");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    TenantStorageMigrator(TenantRepository tenantRepository,
+                          TenantDatabases tenantDatabases,
+                          TenantIndexManager tenantIndexManager,
+                          CategoryCache categoryCache,
+                          int batchSize,
+                          Executor executor) {
+        this.tenantRepository = tenantRepository;
+        this.tenantDatabases = tenantDatabases;
+        this.tenantIndexManager = tenantIndexManager;
+        this.categoryCache = categoryCache;
+        this.batchSize = batchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Marks the tenant as migrating and queues the migration.
+     *
+     * @return the tenant, still on its current storage and marked as migrating unless it already uses the target
+     */
+    public Tenant migrate(String tenantId, Tenant.Storage target) {
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant not found with id: " + tenantId));
+        if ("ADMIN".equalsIgnoreCase(tenant.getRole())) {
+            throw new IllegalArgumentException("Admin accounts have no tenant data to migrate");
+        }
+        Tenant.Storage source = tenant.getStorage() != null ? tenant.getStorage() : Tenant.Storage.DATABASE;
+        if (source == target) {
+            logger.info("[Tenant: {}] Already uses {} storage", tenantId, target);
+            return tenant;
+        }
+        // A tenant left marked by a node that stopped mid-migration may be migrated again
+        if (!activeMigrations.add(tenantId)) {
+            throw new IllegalArgumentException("The storage of tenant " + tenantId + " is already being migrated");
+        }
+        Tenant migratingTenant;
+        try {
+            migratingTenant = setMigrating(tenant, true);
+            executor.execute(() -> {
+                try {
+                    run(tenantId, source, target);
+                } catch (RuntimeException e) {
+                    logger.error("[Tenant: {}] Storage migration from {} to {} failed: {}",
+                            tenantId, source, target, e.getMessage(), e);
+                } finally {
+                    activeMigrations.remove(tenantId);
+                }
+            });
+        } catch (RuntimeException e) {
+            activeMigrations.remove(tenantId);
+            throw e;
+        }
+        logger.info("[Tenant: {}] Queued storage migration from {} to {}", tenantId, source, target);
+        return migratingTenant;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    void run(String tenantId, Tenant.Storage source, Tenant.Storage target) {
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant not found with id: " + tenantId));
+        logger.info("[Tenant: {}] Migrating storage from {} to {}", tenantId, source, target);
+        try {
+            awaitCachedHandles(tenantId, "stop writing");
+            // Anything in the target is left over from an earlier, interrupted migration
+            tenantDatabases.dropTenantData(tenantId, target);
+            MongoDatabase from = tenantDatabases.database(tenantId, source);
+            MongoDatabase to = tenantDatabases.database(tenantId, target);
+            for (String collection : TenantDatabases.SHARED_COLLECTIONS) {
+                long copied = copy(from.getCollection(collection), to.getCollection(collection), target);
+                long expected = from.getCollection(collection).countDocuments();
+                long stored = to.getCollection(collection).countDocuments();
+                if (copied != expected || stored != expected) {
+                    throw new IllegalStateException("Copied " + copied + " and stored " + stored + " of " + expected
+                            + " documents of " + collection + " for tenant " + tenantId
+                            + "; the tenant remains on " + source + " storage");
+                }
+                logger.debug("[Tenant: {}] Copied {} documents of {}", tenantId, copied, collection);
+            }
+        } catch (RuntimeException e) {
+            setMigrating(tenant, false);
+            throw e;
+        }
+
+        tenant.setStorage(target);
+        setMigrating(tenant, false);
+        categoryCache.invalidate(tenantId);
+        tenantIndexManager.ensureTenantIndexes(tenantId);
+        // Nodes whose handle predates the switch may still read the old copy, but no longer write to it
+        awaitCachedHandles(tenantId, "switch to " + target + " storage");
+        tenantDatabases.dropTenantData(tenantId, source);
+        logger.info("[Tenant: {}] Migrated storage from {} to {}", tenantId, source, target);
+    }
+
+    private Tenant setMigrating(Tenant tenant, boolean migrating) {
+        tenant.setMigratingStorage(migrating ? Boolean.TRUE : null);
+        Tenant saved = tenantRepository.save(tenant);
+        tenantDatabases.evict(tenant.getId());
+        return saved;
+    }
+
+    /**
+     * Waits until every node has reloaded the tenant's database handle, and with it the tenant's latest
+     * storage and migration state.
+     */
+    private void awaitCachedHandles(String tenantId, String reason) {
+        Duration ttl = tenantDatabases.getTtl();
+        logger.info("[Tenant: {}] Waiting {} for all nodes to {}", tenantId, ttl, reason);
+        try {
+            Thread.sleep(ttl.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while migrating the storage of tenant " + tenantId, e);
+        }
+    }
+
+    private long copy(MongoCollection<Document> from, MongoCollection<Document> to, Tenant.Storage target) {
+        List<Document> batch = new ArrayList<>(batchSize);
+        long copied = 0;
+        try (MongoCursor<Document> cursor = from.find().batchSize(batchSize).iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                if (target == Tenant.Storage.DATABASE) {
+                    document.remove(TenantDatabases.TENANT_ID_FIELD);
+                }
+                batch.add(document);
+                if (batch.size() == batchSize) {
+                    copied += insert(to, batch);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            copied += insert(to, batch);
+        }
+        return copied;
+    }
+
+    private static int insert(MongoCollection<Document> collection, List<Document> batch) {
+        int inserted = collection.insertMany(batch).getInsertedIds().size();
+        batch.clear();
+        return inserted;
+    }
+}
@@ -0,0 +1,151 @@
+package com.nikhildev.projects.cms.config;
+
+import com.nikhildev.projects.cms.models.Tenant;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphQLQueryLimitsInstrumentationTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+            type Query {
+                contacts(pageSize: Int = 10): [Contact]
+                contactsConnection(first: Int, last: Int): [Contact]
+            }
+            type Contact {
+                contactName: String
+                categories(pageSize: Int = 10): [Category]
+            }
+            type Category {
+                categoryName: String
+                contacts(pageSize: Int = 10): [Contact]
+            }
+            """), RuntimeWiring.newRuntimeWiring().build());
+
+    private static final String NESTED = "{ contacts { contactName categories { categoryName } } }";
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void multipliesTheCostOfNestedFieldsByThePageSizeAndReportsIt() {
+        ExecutionResult result = execute(limits(10000, 10, 100), NESTED);
+
+        assertThat(result.getErrors()).isEmpty();
+        // categories: 1 + 10 * 1, contacts: 1 + 10 * (contactName + categories)
+        assertThat(result.getExtensions()).containsEntry("cost",
+                Map.of("estimated", 121, "maxCost", 10000, "depth", 3, "maxDepth", 10));
+    }
+
+    @Test
+    void rejectsOperationsAboveTheMaximumCost() {
+        ExecutionResult result = execute(limits(120, 10, 100), NESTED);
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly(
+                "Query cost 121 exceeds the maximum of 120; request smaller pages or fewer nested lists");
+        assertThat(result.<Object>getData()).isNull();
+    }
+
+    @Test
+    void rejectsOperationsAboveTheMaximumDepth() {
+        ExecutionResult result = execute(limits(10000, 3, 100),
+                "{ contacts(pageSize: 1) { categories(pageSize: 1) { contacts(pageSize: 1) { contactName } } } }");
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage)
+                .containsExactly("Query depth 4 exceeds the maximum of 3");
+    }
+
+    @Test
+    void rejectsPageSizesAboveTheMaximumBeforeCheckingTheCost() {
+        ExecutionResult result = execute(limits(1, 10, 100), "{ contacts(pageSize: 101) { contactName } }");
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage)
+                .containsExactly("Page size 101 exceeds the maximum of 100");
+    }
+
+    @Test
+    void readsPageSizesFromConnectionArgumentsAndVariables() {
+        GraphQLQueryLimitsInstrumentation instrumentation = limits(10000, 10, 50);
+
+        assertThat(execute(instrumentation, "{ contactsConnection(last: 51) { contactName } }").getErrors())
+                .extracting(GraphQLError::getMessage)
+                .containsExactly("Page size 51 exceeds the maximum of 50");
+        ExecutionResult withVariables = GraphQL.newGraphQL(SCHEMA).instrumentation(instrumentation).build()
+                .execute(input -> input
+                        .query("query($size: Int) { contacts(pageSize: $size) { contactName } }")
+                        .variables(Map.of("size", 60)));
+        assertThat(withVariables.getErrors()).extracting(GraphQLError::getMessage)
+                .containsExactly("Page size 60 exceeds the maximum of 50");
+        // Connections without first or last return the default window of 20
+        assertThat(execute(instrumentation, "{ contactsConnection { contactName } }").getExtensions())
+                .containsEntry("cost", Map.of("estimated", 21, "maxCost", 10000, "depth", 2, "maxDepth", 10));
+    }
+
+    @Test
+    void introspectionIsFree() {
+        ExecutionResult result = execute(limits(1, 1, 1), "{ __schema { types { name fields { name } } } }");
+
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    void tenantOverridesLowerTheConfiguredLimits() {
+        authenticate(new Tenant.QueryLimits(100, null, null));
+
+        assertThat(execute(limits(10000, 10, 100), NESTED).getErrors()).extracting(GraphQLError::getMessage)
+                .containsExactly("Query cost 121 exceeds the maximum of 100; "
+                        + "request smaller pages or fewer nested lists");
+        assertThat(execute(limits(10000, 10, 100), "{ contacts(pageSize: 99) { contactName } }").getErrors())
+                .isEmpty();
+    }
+
+    @Test
+    void tenantOverridesRaiseTheConfiguredLimits() {
+        authenticate(new Tenant.QueryLimits(null, null, 500));
+
+        ExecutionResult result = execute(limits(10000, 10, 100), "{ contacts(pageSize: 500) { contactName } }");
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getExtensions()).containsEntry("cost",
+                Map.of("estimated", 501, "maxCost", 10000, "depth", 2, "maxDepth", 10));
+    }
+
+    @Test
+    void disabledLimitsAcceptEveryOperation() {
+        ExecutionResult result = execute(new GraphQLQueryLimitsInstrumentation(false, 1, 1, 1), NESTED);
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getExtensions()).isNull();
+    }
+
+    private static GraphQLQueryLimitsInstrumentation limits(int maxCost, int maxDepth, int maxPageSize) {
+        return new GraphQLQueryLimitsInstrumentation(true, maxCost, maxDepth, maxPageSize);
+    }
+
+    private static ExecutionResult execute(GraphQLQueryLimitsInstrumentation instrumentation, String query) {
+        return GraphQL.newGraphQL(SCHEMA).instrumentation(instrumentation).build().execute(query);
+    }
+
+    private static void authenticate(Tenant.QueryLimits queryLimits) {
+        Tenant tenant = new Tenant();
+        tenant.setUsername("acme");
+        tenant.setRole("USER");
+        tenant.setQueryLimits(queryLimits);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(tenant, null, tenant.getAuthorities()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.nikhildev.projects.cms.models.SlowQuery;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowQueryRecorderTest {
+
+    private MongoServer server;
+    private MongoClient mongoClient;
+    private MongoDatabase explainDatabase;
+    private SlowQueryRecorder recorder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        // The stand-in server cannot explain, so explains go to a mock
+        MongoClient explainClient = mock(MongoClient.class);
+        explainDatabase = mock(MongoDatabase.class);
+        when(explainClient.getDatabase("tenant")).thenReturn(explainDatabase);
+        when(explainDatabase.runCommand(any(Bson.class))).thenReturn(Document.parse("""
+                {queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}},
+                 executionStats: {nReturned: 1, totalKeysExamined: 1, totalDocsExamined: 1}}"""));
+        ObjectProvider<MongoClient> explainClientProvider = mock(ObjectProvider.class);
+        when(explainClientProvider.getObject()).thenReturn(explainClient);
+        recorder = new SlowQueryRecorder(explainClientProvider, true, Duration.ZERO, 10, 1.0, 1.0);
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://localhost:" + server.bind().getPort()))
+                .addCommandListener(recorder)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+        server.shutdownNow();
+        recorder.destroy();
+    }
+
+    @Test
+    void keepsTheFilterSortAndPagingOfEveryRead() {
+        MongoCollection<Document> contacts = mongoClient.getDatabase("tenant").getCollection("contacts");
+        contacts.insertOne(new Document("contactName", "Jane"));
+        mongoClient.getDatabase("tenant").getCollection("audit").find().into(new ArrayList<>());
+
+        contacts.find(Filters.eq("contactName", "Jane")).sort(Sorts.ascending("contactName"))
+                .skip(20).limit(10).into(new ArrayList<>());
+
+        List<SlowQuery> slowQueries = recorder.getSlowQueries(null, 10);
+        assertThat(slowQueries).hasSize(1);
+        SlowQuery slowQuery = slowQueries.get(0);
+        assertThat(slowQuery.getCommand()).isEqualTo("find");
+        assertThat(slowQuery.getDatabase()).isEqualTo("tenant");
+        assertThat(slowQuery.getCollection()).isEqualTo("contacts");
+        assertThat(Document.parse(slowQuery.getFilter())).isEqualTo(new Document("contactName", "Jane"));
+        assertThat(Document.parse(slowQuery.getSort())).isEqualTo(new Document("contactName", 1));
+        assertThat(slowQuery.getSkip()).isEqualTo(20);
+        assertThat(slowQuery.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void explainsTheKeptCommand() throws InterruptedException {
+        MongoCollection<Document> contacts = mongoClient.getDatabase("tenant").getCollection("contacts");
+
+        contacts.aggregate(List.of(new Document("$match", new Document("contactName", "Jane")))).into(new ArrayList<>());
+
+        SlowQuery slowQuery = recorder.getSlowQueries(null, 1).get(0);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (slowQuery.getExplain() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(slowQuery.getExplain().getStages()).containsExactly("FETCH", "IXSCAN");
+        assertThat(slowQuery.getExplain().isCollectionScan()).isFalse();
+        ArgumentCaptor<Bson> explainCommand = ArgumentCaptor.forClass(Bson.class);
+        verify(explainDatabase).runCommand(explainCommand.capture());
+        assertThat((BsonDocument) explainCommand.getValue()).isEqualTo(BsonDocument.parse("""
+                {explain: {aggregate: 'contacts', pipeline: [{$match: {contactName: 'Jane'}}], cursor: {}},
+                 verbosity: 'executionStats'}"""));
+    }
+}
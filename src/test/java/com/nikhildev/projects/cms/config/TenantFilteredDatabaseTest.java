@@ -0,0 +1,50 @@
+package com.nikhildev.projects.cms.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantFilteredDatabaseTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void restrictsUnionWithSubPipelinesOverSharedCollections() {
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoCollection<Document> contacts = mock(MongoCollection.class);
+        when(database.getCollection("contacts")).thenReturn(contacts);
+        Document match = new Document("$match", new Document("categoryIds", "work"));
+
+        TenantFilteredDatabase.wrap(database, "acme", TenantDatabases.SHARED_COLLECTIONS).getCollection("contacts")
+                .aggregate(List.of(
+                        new Document("$match", new Document("categoryIds", "friends")),
+                        new Document("$unionWith", new Document("coll", "contacts").append("pipeline", List.of(match))),
+                        new Document("$unionWith", "audit")));
+
+        ArgumentCaptor<List<Bson>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(contacts).aggregate(pipeline.capture());
+        Bson tenantMatch = pipeline.getValue().get(0);
+        assertThat(render(tenantMatch)).isEqualTo(BsonDocument.parse("{$match: {tenantId: 'acme'}}"));
+        List<Bson> unionPipeline = ((Document) pipeline.getValue().get(2)).get("$unionWith", Document.class)
+                .getList("pipeline", Bson.class);
+        assertThat(unionPipeline).hasSize(2);
+        assertThat(render(unionPipeline.get(0))).isEqualTo(render(tenantMatch));
+        assertThat(unionPipeline.get(1)).isEqualTo(match);
+        assertThat(pipeline.getValue().get(3)).isEqualTo(new Document("$unionWith", "audit"));
+    }
+
+    private static BsonDocument render(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
@@ -0,0 +1,86 @@
+package com.nikhildev.projects.cms.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvContactRowReaderTest {
+
+    @Test
+    void readsFieldsByHeaderNameAndSplitsCategoryValues() throws IOException {
+        try (CsvContactRowReader reader = reader("""
+                Phone,contactName,categoryName,email
+                555-0100,Jane Doe, Friends ; Work ,jane@example.com
+                """)) {
+            ContactRow row = reader.next();
+
+            assertThat(row.error()).isNull();
+            assertThat(row.line()).isEqualTo(2);
+            assertThat(row.contact().getContactName()).isEqualTo("Jane Doe");
+            assertThat(row.contact().getPhone()).isEqualTo("555-0100");
+            assertThat(row.contact().getEmail()).isEqualTo("jane@example.com");
+            assertThat(row.categoryNames()).containsExactly("Friends", "Work");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void readsQuotedFieldsWithSeparatorsDoubledQuotesAndLineBreaks() throws IOException {
+        try (CsvContactRowReader reader = reader("""
+                contactName,phone,email
+                "Doe, ""JJ""
+                Jane",555-0100,
+                Next,555-0101,
+                """)) {
+            ContactRow quoted = reader.next();
+            ContactRow next = reader.next();
+
+            assertThat(quoted.contact().getContactName()).isEqualTo("Doe, \"JJ\"\nJane");
+            assertThat(quoted.contact().getEmail()).isNull();
+            assertThat(quoted.line()).isEqualTo(2);
+            assertThat(quoted.raw()).isEqualTo("\"Doe, \"\"JJ\"\"\nJane\",555-0100,");
+            assertThat(next.line()).isEqualTo(4);
+            assertThat(next.contact().getContactName()).isEqualTo("Next");
+        }
+    }
+
+    @Test
+    void rejectsRecordsWithMoreColumnsThanTheHeader() throws IOException {
+        try (CsvContactRowReader reader = reader("""
+                contactName,phone
+                Jane,555-0100,extra
+                John,555-0101
+                """)) {
+            ContactRow rejected = reader.next();
+
+            assertThat(rejected.contact()).isNull();
+            assertThat(rejected.error()).isEqualTo("Expected 2 columns but found 3");
+            assertThat(rejected.raw()).isEqualTo("Jane,555-0100,extra");
+            assertThat(reader.next().contact().getContactName()).isEqualTo("John");
+        }
+    }
+
+    @Test
+    void skipsBlankLinesButKeepsLineNumbers() throws IOException {
+        try (CsvContactRowReader reader = reader("contactName,phone\n\n\nJane,555-0100\n")) {
+            assertThat(reader.next().line()).isEqualTo(4);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void requiresContactNameAndPhoneColumns() {
+        assertThatThrownBy(() -> reader("contactName,email\nJane,jane@example.com\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("contactName and phone");
+    }
+
+    private static CsvContactRowReader reader(String csv) throws IOException {
+        return new CsvContactRowReader(new BufferedReader(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.nikhildev.projects.cms.models;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagedResponseTest {
+
+    @Test
+    void fromSliceReportsUnknownTotalsWithoutCountingWhenTheTotalIsNotRequested() {
+        CountingQuery totalQuery = new CountingQuery(42);
+
+        PagedResponse<String> response = PagedResponse.fromSlice(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(1, 2), true), false, totalQuery);
+
+        assertThat(response.getTotalElements()).isEqualTo(-1);
+        assertThat(response.getTotalPages()).isEqualTo(-1);
+        assertThat(response.getContent()).containsExactly("a", "b");
+        assertThat(response.getNumber()).isEqualTo(1);
+        assertThat(response.getPageSize()).isEqualTo(2);
+        assertThat(response.isLast()).isFalse();
+        assertThat(totalQuery.calls()).isZero();
+    }
+
+    @Test
+    void fromSliceDerivesTheTotalOfTheLastPageWithoutCounting() {
+        CountingQuery totalQuery = new CountingQuery(42);
+
+        PagedResponse<String> response = PagedResponse.fromSlice(
+                new SliceImpl<>(List.of("e"), PageRequest.of(2, 2), false), true, totalQuery);
+
+        assertThat(response.getTotalElements()).isEqualTo(5);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(response.isLast()).isTrue();
+        assertThat(totalQuery.calls()).isZero();
+    }
+
+    @Test
+    void fromSliceDerivesAZeroTotalOfAnEmptyFirstPage() {
+        CountingQuery totalQuery = new CountingQuery(42);
+
+        PagedResponse<String> response = PagedResponse.fromSlice(
+                new SliceImpl<>(List.of(), PageRequest.of(0, 10), false), true, totalQuery);
+
+        assertThat(response.getTotalElements()).isZero();
+        assertThat(response.getTotalPages()).isZero();
+        assertThat(response.isEmpty()).isTrue();
+        assertThat(totalQuery.calls()).isZero();
+    }
+
+    @Test
+    void fromSliceCountsWhenMorePagesFollow() {
+        CountingQuery totalQuery = new CountingQuery(7);
+
+        PagedResponse<String> response = PagedResponse.fromSlice(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), true, totalQuery);
+
+        assertThat(response.getTotalElements()).isEqualTo(7);
+        assertThat(response.getTotalPages()).isEqualTo(4);
+        assertThat(totalQuery.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void fromSliceCountsWhenThePageIsBeyondTheLastOne() {
+        CountingQuery totalQuery = new CountingQuery(3);
+
+        PagedResponse<String> response = PagedResponse.fromSlice(
+                new SliceImpl<>(List.of(), PageRequest.of(5, 2), false), true, totalQuery);
+
+        assertThat(response.getTotalElements()).isEqualTo(3);
+        assertThat(response.getTotalPages()).isEqualTo(2);
+        assertThat(totalQuery.calls()).isEqualTo(1);
+    }
+
+    private static final class CountingQuery implements LongSupplier {
+
+        private final long total;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingQuery(long total) {
+            this.total = total;
+        }
+
+        @Override
+        public long getAsLong() {
+            calls.incrementAndGet();
+            return total;
+        }
+
+        int calls() {
+            return calls.get();
+        }
+    }
+}
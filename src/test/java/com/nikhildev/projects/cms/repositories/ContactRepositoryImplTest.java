@@ -0,0 +1,172 @@
+package com.nikhildev.projects.cms.repositories;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.nikhildev.projects.cms.models.Contact;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+class ContactRepositoryImplTest {
+
+    private MongoServer server;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create("mongodb://localhost:" + server.bind().getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "test");
+        mongoTemplate.insertAll(List.of(
+                contact("1", "Ann", "friends", "work"),
+                contact("2", "Bob", "friends"),
+                contact("3", "Cid", "friends"),
+                contact("4", "Dee", "work"),
+                contact("5", "Eve", "family")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void countsTheContactsOfEveryCategoryInOneAggregation() {
+        Map<String, Long> counts = new ContactRepositoryImpl(mongoTemplate, true)
+                .countByCategoryIds(List.of("friends", "work", "empty"), null, null);
+
+        assertThat(counts).containsOnly(Map.entry("friends", 3L), Map.entry("work", 2L));
+    }
+
+    @Test
+    void countsOnlyContactsMatchingTheNameFilter() {
+        Map<String, Long> counts = new ContactRepositoryImpl(mongoTemplate, true)
+                .countByCategoryIds(List.of("friends", "work"), "an", null);
+
+        assertThat(counts).containsOnly(Map.entry("friends", 1L), Map.entry("work", 1L));
+    }
+
+    @Test
+    void readsOneSlicePerCategoryWithQueriesWhenUnionWithIsDisabled() {
+        Map<String, Slice<Contact>> slices = new ContactRepositoryImpl(mongoTemplate, false).findSlicesByCategoryIds(
+                List.of("friends", "work"), null, null, PageRequest.of(0, 2, Sort.by("contactName")));
+
+        assertThat(slices.get("friends").getContent()).extracting(Contact::getContactName).containsExactly("Ann", "Bob");
+        assertThat(slices.get("friends").hasNext()).isTrue();
+        assertThat(slices.get("work").getContent()).extracting(Contact::getContactName).containsExactly("Ann", "Dee");
+        assertThat(slices.get("work").hasNext()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readsTheSlicesOfAllCategoriesWithOneUnionWithAggregation() {
+        MongoTemplate template = spy(mongoTemplate);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        AggregateIterable<Document> results = mock(AggregateIterable.class);
+        List<List<Document>> pipelines = new ArrayList<>();
+        when(collection.aggregate(anyList())).thenAnswer(invocation -> {
+            pipelines.add(invocation.getArgument(0));
+            return results;
+        });
+        when(results.into(any())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.add(new Document("_id", "1").append("contactName", "Ann").append("_sliceCategoryId", "friends"));
+            target.add(new Document("_id", "2").append("contactName", "Bob").append("_sliceCategoryId", "friends"));
+            target.add(new Document("_id", "3").append("contactName", "Cid").append("_sliceCategoryId", "friends"));
+            target.add(new Document("_id", "4").append("contactName", "Dee").append("_sliceCategoryId", "work"));
+            return target;
+        });
+        doAnswer(invocation -> invocation.<CollectionCallback<?>>getArgument(1).doInCollection(collection))
+                .when(template).execute(eq(Contact.class), any(CollectionCallback.class));
+
+        Map<String, Slice<Contact>> slices = new ContactRepositoryImpl(template, true).findSlicesByCategoryIds(
+                List.of("friends", "work", "empty"), null, null, PageRequest.of(1, 2, Sort.by("contactName")));
+
+        assertThat(pipelines).hasSize(1);
+        List<Document> pipeline = pipelines.get(0);
+        assertThat(pipeline).extracting(stage -> stage.keySet().iterator().next()).containsExactly(
+                "$match", "$sort", "$skip", "$limit", "$addFields", "$unionWith", "$unionWith", "$sort");
+        assertThat(pipeline.get(0)).isEqualTo(new Document("$match", new Document("categoryIds", "friends")));
+        assertThat(pipeline.get(3)).isEqualTo(new Document("$limit", 3));
+        Document union = pipeline.get(5).get("$unionWith", Document.class);
+        assertThat(union.getString("coll")).isEqualTo("contacts");
+        assertThat(union.getList("pipeline", Document.class)).containsExactly(
+                new Document("$match", new Document("categoryIds", "work")),
+                new Document("$sort", new Document("contactName", 1)),
+                new Document("$skip", 2L),
+                new Document("$limit", 3),
+                new Document("$addFields", new Document("_sliceCategoryId", "work")));
+        assertThat(pipeline.get(7)).isEqualTo(
+                new Document("$sort", new Document("_sliceCategoryId", 1).append("contactName", 1)));
+
+        assertThat(slices.get("friends").getContent()).extracting(Contact::getContactName).containsExactly("Ann", "Bob");
+        assertThat(slices.get("friends").hasNext()).isTrue();
+        assertThat(slices.get("work").getContent()).extracting(Contact::getContactName).containsExactly("Dee");
+        assertThat(slices.get("work").hasNext()).isFalse();
+        assertThat(slices.get("empty").getContent()).isEmpty();
+    }
+
+    @Test
+    void reportsVersionConflictsAndDuplicatesOfOneBulkUpdatePerContact() {
+        mongoTemplate.indexOps(Contact.class).ensureIndex(
+                new Index("phoneDigits", Sort.Direction.ASC).unique().sparse());
+        List<Contact> contacts = mongoTemplate.find(new Query().with(Sort.by("_id")), Contact.class);
+        contacts.get(1).setVersion(contacts.get(1).getVersion() + 1);
+        contacts.get(2).applyPhoneDigits("15550100");
+        Contact taken = contacts.get(3);
+        taken.applyPhoneDigits("15550100");
+        mongoTemplate.save(taken);
+        contacts.get(0).setContactName("Anna");
+        long version = contacts.get(0).getVersion();
+
+        List<ContactRepositoryCustom.BulkFailure> failures = new ContactRepositoryImpl(mongoTemplate, true)
+                .updateUnordered(contacts.subList(0, 3));
+
+        assertThat(failures).extracting(ContactRepositoryCustom.BulkFailure::index,
+                        ContactRepositoryCustom.BulkFailure::reason)
+                .containsExactly(tuple(1, ContactRepositoryCustom.BulkFailure.Reason.VERSION_CONFLICT),
+                        tuple(2, ContactRepositoryCustom.BulkFailure.Reason.DUPLICATE_KEY));
+        assertThat(contacts.get(0).getVersion()).isEqualTo(version + 1);
+        Contact written = mongoTemplate.findById("1", Contact.class);
+        assertThat(written.getContactName()).isEqualTo("Anna");
+        assertThat(written.getVersion()).isEqualTo(version + 1);
+    }
+
+    private static Contact contact(String id, String name, String... categoryIds) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setContactName(name);
+        contact.setCategoryIds(List.of(categoryIds));
+        contact.refreshSearchFields();
+        return contact;
+    }
+}
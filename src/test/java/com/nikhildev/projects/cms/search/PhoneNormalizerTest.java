@@ -0,0 +1,50 @@
+package com.nikhildev.projects.cms.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhoneNormalizerTest {
+
+    @Test
+    void canonicalizeAppliesTheDefaultCountryCodeToNationalNumbers() {
+        PhoneNormalizer normalizer = new PhoneNormalizer("+1");
+
+        assertThat(normalizer.canonicalize("+1 555-0100")).isEqualTo("15550100");
+        assertThat(normalizer.canonicalize("555-0100")).isEqualTo("15550100");
+        assertThat(normalizer.canonicalize("0555 0100")).isEqualTo("15550100");
+        assertThat(normalizer.canonicalize("0044 20 7946 0000")).isEqualTo("442079460000");
+    }
+
+    @Test
+    void rejectsAMissingDefaultCountryCode() {
+        assertThatThrownBy(() -> new PhoneNormalizer(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cms.phone.default-country-code must be set");
+        assertThatThrownBy(() -> new PhoneNormalizer(" + "))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void canonicalizeOfPhoneWithoutDigitsIsEmpty() {
+        assertThat(new PhoneNormalizer("1").canonicalize("n/a")).isEmpty();
+        assertThat(new PhoneNormalizer("1").canonicalize("+")).isEmpty();
+        assertThat(new PhoneNormalizer("1").canonicalize(null)).isNull();
+    }
+
+    @Test
+    void suffixPatternMatchesTheReversedDigits() {
+        String reversed = PhoneNormalizer.reverse("15550100");
+
+        assertThat(PhoneNormalizer.suffixPattern("01-00").matcher(reversed).find()).isTrue();
+        assertThat(PhoneNormalizer.suffixPattern("0199").matcher(reversed).find()).isFalse();
+    }
+
+    @Test
+    void hasDigitsRejectsFiltersThatWouldMatchEveryContact() {
+        assertThat(PhoneNormalizer.hasDigits("(555)")).isTrue();
+        assertThat(PhoneNormalizer.hasDigits("-- ")).isFalse();
+        assertThat(PhoneNormalizer.hasDigits(null)).isFalse();
+    }
+}
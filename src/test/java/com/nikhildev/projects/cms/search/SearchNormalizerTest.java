@@ -0,0 +1,56 @@
+package com.nikhildev.projects.cms.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchNormalizerTest {
+
+    @Test
+    void normalizeLowercasesFoldsAccentsAndCollapsesSeparators() {
+        assertThat(SearchNormalizer.normalize("  Zoë  O'Brien")).isEqualTo("zoe o brien");
+        assertThat(SearchNormalizer.normalize("JOSÉ-María\tNúñez")).isEqualTo("jose maria nunez");
+        assertThat(SearchNormalizer.normalize(null)).isNull();
+    }
+
+    @Test
+    void tokenizeKeepsDistinctTokensInOrderOfFirstAppearance() {
+        assertThat(SearchNormalizer.tokenize("Smith, John smith")).containsExactly("smith", "john");
+        assertThat(SearchNormalizer.tokenize("Agent 007")).containsExactly("agent", "007");
+    }
+
+    @Test
+    void tokenizeReturnsNoTokensForBlankOrPunctuationOnlyText() {
+        assertThat(SearchNormalizer.tokenize(null)).isEmpty();
+        assertThat(SearchNormalizer.tokenize("   ")).isEmpty();
+        assertThat(SearchNormalizer.tokenize("--- !?")).isEmpty();
+    }
+
+    @Test
+    void hasTokensIsFalseWhenThereIsNothingToSearchFor() {
+        assertThat(SearchNormalizer.hasTokens("jo")).isTrue();
+        assertThat(SearchNormalizer.hasTokens(null)).isFalse();
+        assertThat(SearchNormalizer.hasTokens("")).isFalse();
+        assertThat(SearchNormalizer.hasTokens("'.,")).isFalse();
+    }
+
+    @Test
+    void prefixPatternsAreAnchoredPerToken() {
+        List<Pattern> patterns = SearchNormalizer.prefixPatterns("Jo  SM");
+
+        assertThat(patterns).extracting(Pattern::pattern).containsExactly("^jo", "^sm");
+        List<String> tokens = SearchNormalizer.tokenize("Smith, Joanna");
+        assertThat(patterns).allMatch(pattern -> tokens.stream().anyMatch(token -> pattern.matcher(token).find()));
+        assertThat(patterns.get(0).matcher("bojo").find()).isFalse();
+    }
+
+    @Test
+    void prefixPatternsOfAccentedQueryMatchFoldedTokens() {
+        Pattern pattern = SearchNormalizer.prefixPatterns("Zoë").get(0);
+
+        assertThat(pattern.matcher("zoe").find()).isTrue();
+    }
+}
@@ -0,0 +1,71 @@
+package com.nikhildev.projects.cms.services;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Category;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+
+    private CategoryRepository categoryRepository;
+    private CategoryCache categoryCache;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        TenantContext tenantContext = mock(TenantContext.class);
+        when(tenantContext.getTenantId()).thenReturn("tenant");
+        when(categoryRepository.findAll()).thenReturn(List.of(category("friends")));
+        categoryCache = new CategoryCache(categoryRepository, tenantContext, Duration.ofMinutes(10), 10);
+    }
+
+    @Test
+    void cachedIdsAreAnsweredFromMemory() {
+        assertThat(categoryCache.exists("friends")).isTrue();
+        assertThat(categoryCache.findMissingIds(List.of("friends"))).isEmpty();
+
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findExistingIds(any());
+    }
+
+    @Test
+    void idsMissingFromTheCacheAreConfirmedWithOneQuery() {
+        when(categoryRepository.findExistingIds(any())).thenReturn(Set.of());
+
+        assertThat(categoryCache.findMissingIds(List.of("gone", "friends", "unknown")))
+                .containsExactly("gone", "unknown");
+
+        verify(categoryRepository).findExistingIds(Set.of("gone", "unknown"));
+    }
+
+    @Test
+    void categoriesCreatedElsewhereAreFoundAndReloaded() {
+        when(categoryRepository.findExistingIds(any())).thenReturn(Set.of("work"));
+        categoryCache.exists("friends");
+        when(categoryRepository.findAll()).thenReturn(List.of(category("friends"), category("work")));
+
+        assertThat(categoryCache.exists("work")).isTrue();
+        assertThat(categoryCache.get("work")).isPresent();
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    private static Category category(String id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setCategoryName(id);
+        return category;
+    }
+}
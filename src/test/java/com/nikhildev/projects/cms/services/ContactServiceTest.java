@@ -0,0 +1,79 @@
+package com.nikhildev.projects.cms.services;
+
+import com.nikhildev.projects.cms.config.TenantContext;
+import com.nikhildev.projects.cms.models.Contact;
+import com.nikhildev.projects.cms.models.PagedResponse;
+import com.nikhildev.projects.cms.repositories.CategoryRepository;
+import com.nikhildev.projects.cms.repositories.ContactRepository;
+import com.nikhildev.projects.cms.search.PhoneNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContactServiceTest {
+
+    private ContactRepository contactRepository;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository = mock(ContactRepository.class);
+        when(contactRepository.findSlice(any(), any(), any()))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(new Contact()), invocation.getArgument(1), true));
+        when(contactRepository.count()).thenReturn(10L);
+        when(contactRepository.estimatedCount()).thenReturn(12L);
+        when(contactRepository.countByNameTokenPrefixes(anyList())).thenReturn(3L);
+    }
+
+    @Test
+    void unfilteredListingUsesTheEstimatedCountWhenEnabled() {
+        PagedResponse<Contact> response = service(true).getAllContacts(
+                null, null, null, 0, 1, "contactName", Sort.Direction.ASC, true, null);
+
+        assertThat(response.getTotalElements()).isEqualTo(12);
+        verify(contactRepository, never()).count();
+    }
+
+    @Test
+    void unfilteredListingCountsExactlyByDefault() {
+        PagedResponse<Contact> response = service(false).getAllContacts(
+                null, null, null, 0, 1, "contactName", Sort.Direction.ASC, true, null);
+
+        assertThat(response.getTotalElements()).isEqualTo(10);
+        verify(contactRepository, never()).estimatedCount();
+    }
+
+    @Test
+    void filteredListingCountsExactlyEvenWhenEstimatesAreEnabled() {
+        PagedResponse<Contact> response = service(true).getAllContacts(
+                "jo", null, null, 0, 1, "contactName", Sort.Direction.ASC, true, null);
+
+        assertThat(response.getTotalElements()).isEqualTo(3);
+        verify(contactRepository, never()).estimatedCount();
+    }
+
+    @Test
+    void listingWithoutTotalCountsNothing() {
+        PagedResponse<Contact> response = service(true).getAllContacts(
+                null, null, null, 0, 1, "contactName", Sort.Direction.ASC, false, null);
+
+        assertThat(response.getTotalElements()).isEqualTo(-1);
+        verify(contactRepository, never()).estimatedCount();
+        verify(contactRepository, never()).count();
+    }
+
+    private ContactService service(boolean estimatedCount) {
+        return new ContactService(contactRepository, mock(CategoryRepository.class), mock(CategoryCache.class),
+                mock(TenantContext.class), new PhoneNormalizer("1"), estimatedCount, 1000);
+    }
+}
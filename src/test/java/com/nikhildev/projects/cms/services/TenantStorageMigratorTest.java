@@ -0,0 +1,199 @@
+package com.nikhildev.projects.cms.services;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.nikhildev.projects.cms.config.TenantDatabases;
+import com.nikhildev.projects.cms.exceptions.TenantMigrationInProgressException;
+import com.nikhildev.projects.cms.models.Tenant;
+import com.nikhildev.projects.cms.repositories.TenantRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class TenantStorageMigratorTest {
+
+    private static final int CONTACTS = 5;
+    private static final int CATEGORIES = 3;
+
+    private MongoServer server;
+    private MongoClient mongoClient;
+    private TenantRepository tenantRepository;
+    private TenantDatabases tenantDatabases;
+    private TenantIndexManager tenantIndexManager;
+    private String tenantId;
+    private final List<Runnable> queuedMigrations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create("mongodb://localhost:" + server.bind().getPort());
+        tenantRepository = new MongoRepositoryFactory(new MongoTemplate(mongoClient, TenantDatabases.DEFAULT_DB))
+                .getRepository(TenantRepository.class);
+        tenantDatabases = new TenantDatabases(mongoClient, "shared", 100, Duration.ofMillis(10));
+        tenantIndexManager = mock(TenantIndexManager.class);
+
+        Tenant tenant = new Tenant();
+        tenant.setId(new ObjectId().toHexString());
+        tenant.setName("Acme");
+        tenant.setUsername("acme");
+        tenant.setRole("USER");
+        tenant.setStorage(Tenant.Storage.DATABASE);
+        tenantId = tenantRepository.save(tenant).getId();
+
+        MongoDatabase database = mongoClient.getDatabase(TenantDatabases.databaseName(tenantId));
+        database.getCollection("contacts").insertMany(IntStream.range(0, CONTACTS)
+                .mapToObj(i -> new Document("contactName", "Contact " + i).append("phone", "555-010" + i))
+                .toList());
+        database.getCollection("categories").insertMany(IntStream.range(0, CATEGORIES)
+                .mapToObj(i -> new Document("categoryName", "Category " + i))
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void copiesTheDataAndSwitchesToSharedStorage() {
+        Tenant migrating = migrator(tenantDatabases).migrate(tenantId, Tenant.Storage.SHARED);
+
+        assertThat(migrating.getStorage()).isEqualTo(Tenant.Storage.DATABASE);
+        assertThat(migrating.getMigratingStorage()).isTrue();
+        runQueuedMigrations();
+
+        Tenant migrated = tenantRepository.findById(tenantId).orElseThrow();
+        assertThat(migrated.getStorage()).isEqualTo(Tenant.Storage.SHARED);
+        assertThat(migrated.getMigratingStorage()).isNull();
+        MongoDatabase shared = mongoClient.getDatabase("shared");
+        assertThat(shared.getCollection("contacts").countDocuments(new Document("tenantId", tenantId)))
+                .isEqualTo(CONTACTS);
+        assertThat(shared.getCollection("categories").countDocuments(new Document("tenantId", tenantId)))
+                .isEqualTo(CATEGORIES);
+        assertThat(mongoClient.listDatabaseNames().into(new ArrayList<>()))
+                .doesNotContain(TenantDatabases.databaseName(tenantId));
+        assertThat(tenantDatabases.database(tenantId).getName()).isEqualTo("shared");
+        assertThat(tenantDatabases.database(tenantId).getCollection("contacts").countDocuments()).isEqualTo(CONTACTS);
+        verify(tenantIndexManager).ensureTenantIndexes(tenantId);
+    }
+
+    @Test
+    void movesSharedDataBackToADatabaseOfItsOwn() {
+        TenantStorageMigrator migrator = migrator(tenantDatabases);
+        migrator.migrate(tenantId, Tenant.Storage.SHARED);
+        runQueuedMigrations();
+
+        migrator.migrate(tenantId, Tenant.Storage.DATABASE);
+        runQueuedMigrations();
+
+        assertThat(tenantRepository.findById(tenantId).orElseThrow().getStorage()).isEqualTo(Tenant.Storage.DATABASE);
+        MongoCollection<Document> contacts = mongoClient.getDatabase(TenantDatabases.databaseName(tenantId))
+                .getCollection("contacts");
+        assertThat(contacts.countDocuments()).isEqualTo(CONTACTS);
+        assertThat(contacts.countDocuments(new Document("tenantId", new Document("$exists", true)))).isZero();
+        assertThat(mongoClient.getDatabase("shared").getCollection("contacts").countDocuments()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsTheTenantOnItsStorageWhenTheCopyIsIncomplete() {
+        TenantDatabases lossyDatabases = spy(tenantDatabases);
+        MongoDatabase shared = tenantDatabases.database(tenantId, Tenant.Storage.SHARED);
+        MongoCollection<Document> sharedContacts = shared.getCollection("contacts");
+        MongoCollection<Document> lossyContacts = mock(MongoCollection.class, delegatesTo(sharedContacts));
+        // Drops the first document of every full batch
+        doAnswer(invocation -> {
+            List<Document> batch = invocation.getArgument(0);
+            return sharedContacts.insertMany(batch.size() > 1 ? batch.subList(1, batch.size()) : batch);
+        }).when(lossyContacts).insertMany(anyList());
+        MongoDatabase lossyShared = mock(MongoDatabase.class, delegatesTo(shared));
+        doReturn(lossyContacts).when(lossyShared).getCollection("contacts");
+        doReturn(lossyShared).when(lossyDatabases).database(tenantId, Tenant.Storage.SHARED);
+
+        TenantStorageMigrator migrator = migrator(lossyDatabases);
+        migrator.migrate(tenantId, Tenant.Storage.SHARED);
+        runQueuedMigrations();
+        assertThat(tenantRepository.findById(tenantId).orElseThrow().getMigratingStorage()).isNull();
+
+        assertThatThrownBy(() -> migrator.run(tenantId, Tenant.Storage.DATABASE, Tenant.Storage.SHARED))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("of " + CONTACTS + " documents of contacts")
+                .hasMessageContaining("remains on DATABASE storage");
+
+        Tenant tenant = tenantRepository.findById(tenantId).orElseThrow();
+        assertThat(tenant.getStorage()).isEqualTo(Tenant.Storage.DATABASE);
+        assertThat(tenant.getMigratingStorage()).isNull();
+        MongoCollection<Document> contacts = tenantDatabases.database(tenantId).getCollection("contacts");
+        assertThat(contacts.countDocuments()).isEqualTo(CONTACTS);
+        contacts.insertOne(new Document("contactName", "Written after the failed migration"));
+        assertThat(contacts.countDocuments()).isEqualTo(CONTACTS + 1);
+    }
+
+    @Test
+    void rejectsASecondMigrationUntilTheFirstHasFinished() {
+        TenantStorageMigrator migrator = migrator(tenantDatabases);
+        migrator.migrate(tenantId, Tenant.Storage.SHARED);
+
+        assertThatThrownBy(() -> migrator.migrate(tenantId, Tenant.Storage.SHARED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already being migrated");
+        assertThatThrownBy(() -> tenantDatabases.database(tenantId).getCollection("contacts")
+                .insertOne(new Document("contactName", "Lost")))
+                .isInstanceOf(TenantMigrationInProgressException.class);
+
+        runQueuedMigrations();
+        assertThat(migrator.migrate(tenantId, Tenant.Storage.DATABASE).getMigratingStorage()).isTrue();
+        assertThat(queuedMigrations).hasSize(1);
+    }
+
+    @Test
+    void rejectsWritesWhileTheTenantIsMigrating() {
+        Tenant tenant = tenantRepository.findById(tenantId).orElseThrow();
+        tenant.setMigratingStorage(true);
+        tenantRepository.save(tenant);
+        tenantDatabases.evict(tenantId);
+
+        MongoCollection<Document> contacts = tenantDatabases.database(tenantId).getCollection("contacts");
+
+        assertThat(contacts.countDocuments()).isEqualTo(CONTACTS);
+        assertThatThrownBy(() -> contacts.insertOne(new Document("contactName", "Lost")))
+                .isInstanceOf(TenantMigrationInProgressException.class);
+        assertThatThrownBy(() -> contacts.deleteMany(new Document()))
+                .isInstanceOf(TenantMigrationInProgressException.class);
+    }
+
+    private TenantStorageMigrator migrator(TenantDatabases databases) {
+        return new TenantStorageMigrator(tenantRepository, databases, tenantIndexManager, mock(CategoryCache.class), 2,
+                queuedMigrations::add);
+    }
+
+    private void runQueuedMigrations() {
+        List<Runnable> migrations = new ArrayList<>(queuedMigrations);
+        queuedMigrations.clear();
+        migrations.forEach(Runnable::run);
+    }
+}